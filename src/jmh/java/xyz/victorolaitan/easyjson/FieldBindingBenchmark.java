@@ -0,0 +1,75 @@
+package xyz.victorolaitan.easyjson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and writing every field of a record through its cached {@link ClassBinding},
+ * which is what {@link DatabaseHelper} does for each record it maps.
+ * It sits in the library's package because the bindings aren't public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldBindingBenchmark {
+
+    public static class Record {
+        public long id;
+        public int count;
+        public double score;
+        public boolean active;
+        public String name;
+        private long created;
+    }
+
+    private ClassBinding.FieldBinding[] fields;
+    private Object[] values;
+    private Record record;
+
+    @Setup
+    public void setup() throws IllegalAccessException {
+        fields = ClassBinding.of(Record.class).fields();
+        values = new Object[fields.length];
+        record = new Record();
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = switch (fields[i].name) {
+                case "id" -> 42L;
+                case "count" -> 7;
+                case "score" -> 0.5;
+                case "active" -> true;
+                case "name" -> "record";
+                default -> 1_600_000_000_000L;
+            };
+            fields[i].set(record, values[i]);
+        }
+    }
+
+    @Benchmark
+    public Record setFields() throws IllegalAccessException {
+        for (int i = 0; i < fields.length; i++) {
+            fields[i].set(record, values[i]);
+        }
+        return record;
+    }
+
+    @Benchmark
+    public void getFields(Blackhole blackhole) throws IllegalAccessException {
+        for (ClassBinding.FieldBinding field : fields) {
+            blackhole.consume(field.get(record));
+        }
+    }
+}
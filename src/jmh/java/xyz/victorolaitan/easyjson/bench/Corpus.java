@@ -0,0 +1,156 @@
+package xyz.victorolaitan.easyjson.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Generated benchmark documents. Every shape is seeded, so runs compare like with like.
+ */
+public enum Corpus {
+    /**
+     * A single record of a few hundred bytes
+     */
+    SMALL(new String[]{"record", "tags", "2"}) {
+        @Override
+        void generate(StringBuilder sb, Random random) {
+            sb.append("{\"record\":");
+            record(sb, random, 0);
+            sb.append('}');
+        }
+    },
+    /**
+     * About 1 MB of records
+     */
+    MEDIUM(new String[]{"records", "4000", "name"}) {
+        @Override
+        void generate(StringBuilder sb, Random random) {
+            records(sb, random, 5_000);
+        }
+    },
+    /**
+     * About 50 MB of records
+     */
+    HUGE(new String[]{"records", "200000", "name"}) {
+        @Override
+        void generate(StringBuilder sb, Random random) {
+            records(sb, random, 250_000);
+        }
+    },
+    /**
+     * Objects nested 256 levels deep
+     */
+    DEEP(deepPath()) {
+        @Override
+        void generate(StringBuilder sb, Random random) {
+            for (int i = 0; i < DEEP_LEVELS; i++) {
+                sb.append("{\"child\":");
+            }
+            sb.append("{\"leaf\":true}");
+            for (int i = 0; i < DEEP_LEVELS; i++) {
+                sb.append('}');
+            }
+        }
+    },
+    /**
+     * One object with 50,000 keys
+     */
+    WIDE(new String[]{"key49999"}) {
+        @Override
+        void generate(StringBuilder sb, Random random) {
+            sb.append('{');
+            for (int i = 0; i < 50_000; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append("\"key").append(i).append("\":").append(random.nextInt());
+            }
+            sb.append('}');
+        }
+    },
+    /**
+     * One array of 200,000 numbers
+     */
+    LONG_ARRAY(new String[]{"values", "190000"}) {
+        @Override
+        void generate(StringBuilder sb, Random random) {
+            sb.append("{\"values\":[");
+            for (int i = 0; i < 200_000; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                if (i % 2 == 0) {
+                    sb.append(random.nextLong());
+                } else {
+                    sb.append(random.nextDouble() * 1000);
+                }
+            }
+            sb.append("]}");
+        }
+    };
+
+    private static final int DEEP_LEVELS = 256;
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel"};
+
+    private final String[] probe;
+
+    Corpus(String[] probe) {
+        this.probe = probe;
+    }
+
+    /**
+     * @return a search path that exists in this document
+     */
+    public String[] probe() {
+        return probe.clone();
+    }
+
+    abstract void generate(StringBuilder sb, Random random);
+
+    public String text() {
+        StringBuilder sb = new StringBuilder();
+        generate(sb, new Random(42));
+        return sb.toString();
+    }
+
+    public File writeTempFile() throws IOException {
+        File file = Files.createTempFile("easyjson-" + name().toLowerCase(), ".json").toFile();
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), text(), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static void records(StringBuilder sb, Random random, int count) {
+        sb.append("{\"records\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            record(sb, random, i);
+        }
+        sb.append("]}");
+    }
+
+    static void record(StringBuilder sb, Random random, int id) {
+        sb.append("{\"id\":").append(id)
+                .append(",\"name\":\"").append(WORDS[random.nextInt(WORDS.length)]).append(' ').append(id).append('"')
+                .append(",\"score\":").append(random.nextDouble() * 100)
+                .append(",\"active\":").append(random.nextBoolean())
+                .append(",\"tags\":[\"").append(WORDS[random.nextInt(WORDS.length)])
+                .append("\",\"").append(WORDS[random.nextInt(WORDS.length)])
+                .append("\",\"").append(WORDS[random.nextInt(WORDS.length)]).append("\"]")
+                .append(",\"meta\":{\"created\":").append(1_600_000_000L + random.nextInt(100_000_000))
+                .append(",\"source\":\"generator\"}}");
+    }
+
+    private static String[] deepPath() {
+        String[] path = new String[DEEP_LEVELS + 1];
+        for (int i = 0; i < DEEP_LEVELS; i++) {
+            path[i] = "child";
+        }
+        path[DEEP_LEVELS] = "leaf";
+        return path;
+    }
+}
@@ -0,0 +1,79 @@
+package xyz.victorolaitan.easyjson.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.victorolaitan.easyjson.DatabaseHelper;
+import xyz.victorolaitan.easyjson.EasyJSON;
+import xyz.victorolaitan.easyjson.EasyJSONException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping a single generated record to and from a POJO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseHelperBenchmark {
+
+    public static class Record {
+        public long id;
+        public String name;
+        public double score;
+        public boolean active;
+        public List<Object> tags;
+        public Meta meta;
+
+        public static class Meta {
+            public long created;
+            public String source;
+        }
+    }
+
+    private File file;
+    private EasyJSON json;
+    private Record record;
+
+    @Setup
+    public void setup() throws IOException, EasyJSONException {
+        StringBuilder sb = new StringBuilder();
+        Corpus.record(sb, new Random(42), 7);
+        file = File.createTempFile("easyjson-record", ".json");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), sb.toString(), StandardCharsets.UTF_8);
+        json = EasyJSON.open(file);
+        record = DatabaseHelper.deserializeToClass(Record.class, json);
+    }
+
+    @Benchmark
+    public Record deserializeToClass() throws EasyJSONException {
+        return DatabaseHelper.deserializeToClass(Record.class, json);
+    }
+
+    @Benchmark
+    public Record openAndDeserialize() throws EasyJSONException {
+        return DatabaseHelper.deserializeToClass(Record.class, EasyJSON.open(file));
+    }
+
+    @Benchmark
+    public EasyJSON serializeInstance() throws EasyJSONException {
+        return DatabaseHelper.serializeInstance(record);
+    }
+}
@@ -0,0 +1,77 @@
+package xyz.victorolaitan.easyjson.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.victorolaitan.easyjson.EasyJSON;
+import xyz.victorolaitan.easyjson.JSONElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building and editing trees through the put/remove methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MutateBenchmark {
+    @Param({"100", "10000", "50000"})
+    public int size;
+
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key" + i;
+        }
+    }
+
+    @Benchmark
+    public EasyJSON putPrimitives() {
+        EasyJSON json = EasyJSON.create();
+        for (String key : keys) {
+            json.putPrimitive(key, key);
+        }
+        return json;
+    }
+
+    @Benchmark
+    public EasyJSON putStructures() {
+        EasyJSON json = EasyJSON.create();
+        for (String key : keys) {
+            json.putStructure(key).putPrimitive("value", 1);
+        }
+        return json;
+    }
+
+    @Benchmark
+    public JSONElement appendToArray() {
+        JSONElement array = EasyJSON.create().putArray("values");
+        for (int i = 0; i < size; i++) {
+            array.putPrimitive(i);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public EasyJSON putThenRemove() {
+        EasyJSON json = putPrimitives();
+        for (String key : keys) {
+            json.removeElement(key);
+        }
+        return json;
+    }
+}
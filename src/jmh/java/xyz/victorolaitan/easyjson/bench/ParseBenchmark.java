@@ -0,0 +1,54 @@
+package xyz.victorolaitan.easyjson.bench;
+
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.victorolaitan.easyjson.EasyJSON;
+import xyz.victorolaitan.easyjson.EasyJSONException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JSONParser#parse(String)} and {@link EasyJSON#open(File)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"SMALL", "MEDIUM", "HUGE", "DEEP", "WIDE", "LONG_ARRAY"})
+    public Corpus corpus;
+
+    private String text;
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        text = corpus.text();
+        file = corpus.writeTempFile();
+    }
+
+    @Benchmark
+    public Object jsonParserParse() throws ParseException {
+        return new JSONParser().parse(text);
+    }
+
+    @Benchmark
+    public EasyJSON easyJSONOpen() throws EasyJSONException {
+        return EasyJSON.open(file);
+    }
+}
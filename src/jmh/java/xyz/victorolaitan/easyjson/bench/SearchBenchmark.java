@@ -0,0 +1,60 @@
+package xyz.victorolaitan.easyjson.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.victorolaitan.easyjson.EasyJSON;
+import xyz.victorolaitan.easyjson.EasyJSONException;
+import xyz.victorolaitan.easyjson.JSONElement;
+import xyz.victorolaitan.easyjson.OpenOptions;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JSONElement#search(String...)} and {@link JSONElement#valueOf(String...)}
+ * against a path that exists in each document, opened normally or read-only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"SMALL", "MEDIUM", "HUGE", "DEEP", "WIDE", "LONG_ARRAY"})
+    public Corpus corpus;
+
+    @Param({"false", "true"})
+    public boolean readOnly;
+
+    private EasyJSON json;
+    private String[] probe;
+
+    @Setup
+    public void setup() throws IOException, EasyJSONException {
+        json = EasyJSON.open(corpus.writeTempFile(), OpenOptions.defaults().readOnly(readOnly));
+        probe = corpus.probe();
+        if (json.search(probe) == null) {
+            throw new IllegalStateException("probe path missing from " + corpus);
+        }
+    }
+
+    @Benchmark
+    public JSONElement search() {
+        return json.search(probe);
+    }
+
+    @Benchmark
+    public Object valueOf() {
+        return json.valueOf(probe);
+    }
+}
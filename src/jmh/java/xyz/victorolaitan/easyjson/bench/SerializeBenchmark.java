@@ -0,0 +1,66 @@
+package xyz.victorolaitan.easyjson.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.json.simple.JSONObject;
+import xyz.victorolaitan.easyjson.EasyJSON;
+import xyz.victorolaitan.easyjson.EasyJSONException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EasyJSON#toString()}, {@link EasyJSON#exportToJSONObject()},
+ * {@link EasyJSON#writeTo(OutputStream)} and {@link EasyJSON#save(File)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializeBenchmark {
+    @Param({"SMALL", "MEDIUM", "HUGE", "DEEP", "WIDE", "LONG_ARRAY"})
+    public Corpus corpus;
+
+    private EasyJSON json;
+    private File saveFile;
+
+    @Setup
+    public void setup() throws IOException, EasyJSONException {
+        json = EasyJSON.open(corpus.writeTempFile());
+        saveFile = File.createTempFile("easyjson-save", ".json");
+        saveFile.deleteOnExit();
+    }
+
+    @Benchmark
+    public String toJSONString() {
+        return json.toString();
+    }
+
+    @Benchmark
+    public JSONObject exportToJSONObject() throws EasyJSONException {
+        return json.exportToJSONObject();
+    }
+
+    @Benchmark
+    public void writeTo() throws IOException {
+        json.writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void save() throws EasyJSONException {
+        json.save(saveFile);
+    }
+}
@@ -7,16 +7,16 @@ package org.json.simple;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * A JSON object. Key value pairs are unordered. JSONObject supports java.util.Map interface.
+ * A JSON object. Key value pairs keep their insertion order. JSONObject supports java.util.Map interface.
  * 
  * @author FangYidong<fangyidong@yahoo.com.cn>
  */
-public class JSONObject extends HashMap implements Map, JSONAware, JSONStreamAware{
+public class JSONObject extends LinkedHashMap implements Map, JSONAware, JSONStreamAware{
 	
 	private static final long serialVersionUID = -503443796854799292L;
 	
@@ -62,7 +62,7 @@ public class JSONObject extends HashMap implements Map, JSONAware, JSONStreamAwa
                 out.write(',');
 			Entry entry=(Entry)iter.next();
             out.write('\"');
-            out.write(escape(String.valueOf(entry.getKey())));
+            JSONValue.writeEscaped(String.valueOf(entry.getKey()), out);
             out.write('\"');
             out.write(':');
 			JSONValue.writeJSONString(entry.getValue(), out);
@@ -104,7 +104,7 @@ public class JSONObject extends HashMap implements Map, JSONAware, JSONStreamAwa
 	}
 
 	public static String toString(String key,Object value){
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         sb.append('\"');
         if(key == null)
             sb.append("null");
@@ -42,13 +42,16 @@ public class JSONValue {
 	 * instead
 	 */
 	public static Object parse(Reader in){
+		JSONParser parser=JSONParser.acquire();
 		try{
-			JSONParser parser=new JSONParser();
 			return parser.parse(in);
 		}
 		catch(Exception e){
 			return null;
 		}
+		finally{
+			JSONParser.release(parser);
+		}
 	}
 	
 	/**
@@ -94,13 +97,23 @@ public class JSONValue {
 	 * @throws ParseException
 	 */
 	public static Object parseWithException(Reader in) throws IOException, ParseException{
-		JSONParser parser=new JSONParser();
-		return parser.parse(in);
+		JSONParser parser=JSONParser.acquire();
+		try{
+			return parser.parse(in);
+		}
+		finally{
+			JSONParser.release(parser);
+		}
 	}
 	
 	public static Object parseWithException(String s) throws ParseException{
-		JSONParser parser=new JSONParser();
-		return parser.parse(s);
+		JSONParser parser=JSONParser.acquire();
+		try{
+			return parser.parse(s);
+		}
+		finally{
+			JSONParser.release(parser);
+		}
 	}
 	
     /**
@@ -125,7 +138,7 @@ public class JSONValue {
 		
 		if(value instanceof String){		
             out.write('\"');
-			out.write(escape((String)value));
+			writeEscaped((String)value, out);
             out.write('\"');
 			return;
 		}
@@ -252,65 +265,109 @@ public class JSONValue {
 
 	/**
 	 * Escape quotes, \, /, \r, \n, \b, \f, \t and other control characters (U+0000 through U+001F).
+	 * A string that needs no escaping is returned as is.
 	 * @param s
 	 * @return
 	 */
 	public static String escape(String s){
 		if(s==null)
 			return null;
-        StringBuffer sb = new StringBuffer();
-        escape(s, sb);
-        return sb.toString();
-    }
+		int i=firstEscaped(s);
+		if(i==s.length())
+			return s;
+		StringBuilder sb = new StringBuilder(s.length() + 16);
+		sb.append(s, 0, i);
+		escape(s, i, sb);
+		return sb.toString();
+	}
 
-    /**
-     * @param s - Must not be null.
-     * @param sb
-     */
-    static void escape(String s, StringBuffer sb) {
-    	final int len = s.length();
-		for(int i=0;i<len;i++){
+	/**
+	 * @param s - Must not be null.
+	 * @param sb
+	 */
+	static void escape(String s, StringBuilder sb) {
+		escape(s, 0, sb);
+	}
+
+	private static void escape(String s, int from, StringBuilder sb) {
+		final int len = s.length();
+		for(int i=from;i<len;i++){
 			char ch=s.charAt(i);
-			switch(ch){
-			case '"':
-				sb.append("\\\"");
-				break;
-			case '\\':
-				sb.append("\\\\");
-				break;
-			case '\b':
-				sb.append("\\b");
-				break;
-			case '\f':
-				sb.append("\\f");
-				break;
-			case '\n':
-				sb.append("\\n");
-				break;
-			case '\r':
-				sb.append("\\r");
-				break;
-			case '\t':
-				sb.append("\\t");
-				break;
-			case '/':
-				sb.append("\\/");
-				break;
-			default:
-                //Reference: http://www.unicode.org/versions/Unicode5.1.0/
-				if((ch>='\u0000' && ch<='\u001F') || (ch>='\u007F' && ch<='\u009F') || (ch>='\u2000' && ch<='\u20FF')){
-					String ss=Integer.toHexString(ch);
-					sb.append("\\u");
-					for(int k=0;k<4-ss.length();k++){
-						sb.append('0');
-					}
-					sb.append(ss.toUpperCase());
-				}
-				else{
-					sb.append(ch);
-				}
+			if(needsEscape(ch))
+				sb.append(escapeSequence(ch));
+			else
+				sb.append(ch);
+		}//for
+	}
+
+	/**
+	 * Escape a string the same way as {@link #escape(String)}, writing it straight to out.
+	 * Runs of characters that need no escaping are written as they are, without building an escaped copy of the string.
+	 * 
+	 * @param s - Must not be null.
+	 * @param out
+	 * @throws IOException
+	 */
+	public static void writeEscaped(String s, Writer out) throws IOException {
+		final int len = s.length();
+		int start=0;
+		for(int i=firstEscaped(s);i<len;i++){
+			char ch=s.charAt(i);
+			if(needsEscape(ch)){
+				out.write(s, start, i-start);
+				out.write(escapeSequence(ch));
+				start=i+1;
 			}
 		}//for
+		out.write(s, start, len-start);
+	}
+
+	/**
+	 * @return the index of the first character of s that needs escaping, or the length of s if there is none.
+	 */
+	private static int firstEscaped(String s) {
+		final int len = s.length();
+		for(int i=0;i<len;i++){
+			if(needsEscape(s.charAt(i)))
+				return i;
+		}
+		return len;
+	}
+
+	private static boolean needsEscape(char ch) {
+		switch(ch){
+		case '"':
+		case '\\':
+		case '/':
+			return true;
+		default:
+			//Reference: http://www.unicode.org/versions/Unicode5.1.0/
+			return (ch>='\u0000' && ch<='\u001F') || (ch>='\u007F' && ch<='\u009F') || (ch>='\u2000' && ch<='\u20FF');
+		}
+	}
+
+	private static String escapeSequence(char ch) {
+		switch(ch){
+		case '"':
+			return "\\\"";
+		case '\\':
+			return "\\\\";
+		case '\b':
+			return "\\b";
+		case '\f':
+			return "\\f";
+		case '\n':
+			return "\\n";
+		case '\r':
+			return "\\r";
+		case '\t':
+			return "\\t";
+		case '/':
+			return "\\/";
+		default:
+			String ss=Integer.toHexString(ch).toUpperCase();
+			return "\\u0000".substring(0, 6-ss.length())+ss;
+		}
 	}
 
 }
@@ -0,0 +1,182 @@
+package org.json.simple;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A JSON number that is kept as its text until it's used.
+ * The parser produces these instead of Long and Double values in lazy number mode, so numbers that are
+ * never read are never converted. The first access converts the text, and the result is kept.
+ * <p>
+ * The number is written back as its original text.
+ * <p>
+ * Numbers of up to 16 characters, which is most of them, are packed into a long, four bits to a character,
+ * so a lazy number is a single small object; only longer ones keep their text in a String.
+ *
+ * @see org.json.simple.parser.JSONParser#NUMBERS_LAZY
+ */
+public final class LazyNumber extends Number {
+	private static final long serialVersionUID = 6204563207425326745L;
+
+	/** the characters a number can have, by their packed code; 0 ends the text */
+	private static final char[] SYMBOLS = {0, '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '-', '+', '.', 'e', 'E'};
+	private static final int MAX_PACKED_LENGTH = 16;
+
+	/** the text, packed four bits to a character with the first in the lowest bits, when text is null */
+	private final long packed;
+	private final String text;
+	private transient Number value;
+
+	/**
+	 * @param text - The text of a JSON number.
+	 */
+	public LazyNumber(String text){
+		this(text.toCharArray(), 0, text.length());
+	}
+
+	/**
+	 * Keeps a copy of part of a char array, so the array can be reused afterwards.
+	 * 
+	 * @param chars - Holds the text of a JSON number.
+	 * @param offset - Where the text starts.
+	 * @param length - The length of the text.
+	 */
+	public LazyNumber(char[] chars, int offset, int length){
+		long packed = 0;
+		boolean packable = length <= MAX_PACKED_LENGTH;
+		for(int i = length - 1; i >= 0 && packable; i--){
+			int code = code(chars[offset + i]);
+			packable = code >= 0;
+			packed = (packed << 4) | code;
+		}
+		if(!packable){
+			this.packed = 0;
+			this.text = new String(chars, offset, length);
+		}
+		else{
+			this.packed = packed;
+			this.text = null;
+		}
+	}
+
+	private static int code(char c){
+		switch(c){
+		case '-': return 11;
+		case '+': return 12;
+		case '.': return 13;
+		case 'e': return 14;
+		case 'E': return 15;
+		default: return c >= '0' && c <= '9' ? c - '0' + 1 : -1;
+		}
+	}
+
+	/**
+	 * @return A Long for integers, or a BigInteger for integers outside the range of a long,
+	 * and a Double for anything with a fraction or an exponent.
+	 *
+	 * @throws NumberFormatException if the text isn't a number.
+	 */
+	public Number value(){
+		if(value == null){
+			if(text == null && isInteger()){
+				value = Long.valueOf(packedLong());
+			}
+			else if(text == null){
+				value = Double.valueOf(toString());
+			}
+			else if(isInteger() && text.length() <= 18){
+				value = Long.valueOf(text);
+			}
+			else if(isInteger()){
+				BigInteger integer = new BigInteger(text);
+				value = integer.bitLength() < 64 ? (Number)Long.valueOf(integer.longValue()) : integer;
+			}
+			else{
+				value = Double.valueOf(text);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * @return The exact value of the number, however many digits it has.
+	 *
+	 * @throws NumberFormatException if the text isn't a number.
+	 */
+	public BigDecimal bigDecimalValue(){
+		return new BigDecimal(toString());
+	}
+
+	private boolean isInteger(){
+		if(text != null)
+			return text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0;
+		for(long rest = packed; rest != 0; rest >>>= 4){
+			if((rest & 0xF) >= 13)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return The packed text as a long; it has at most 16 characters, so it can't overflow.
+	 *
+	 * @throws NumberFormatException if the text isn't an integer.
+	 */
+	private long packedLong(){
+		long rest = packed;
+		boolean negative = (rest & 0xF) == 11;
+		if(negative || (rest & 0xF) == 12)
+			rest >>>= 4;
+		if(rest == 0)
+			throw new NumberFormatException("For input string: \"" + toString() + "\"");
+		long result = 0;
+		for(; rest != 0; rest >>>= 4){
+			int code = (int)(rest & 0xF);
+			if(code > 10)
+				throw new NumberFormatException("For input string: \"" + toString() + "\"");
+			result = result * 10 + (code - 1);
+		}
+		return negative ? -result : result;
+	}
+
+	public int intValue(){
+		return value().intValue();
+	}
+
+	public long longValue(){
+		return value().longValue();
+	}
+
+	public float floatValue(){
+		return value().floatValue();
+	}
+
+	public double doubleValue(){
+		return value().doubleValue();
+	}
+
+	public boolean equals(Object o){
+		if(this == o)
+			return true;
+		if(!(o instanceof LazyNumber))
+			return false;
+		return value().equals(((LazyNumber)o).value());
+	}
+
+	public int hashCode(){
+		return value().hashCode();
+	}
+
+	/**
+	 * @return The number's original text.
+	 */
+	public String toString(){
+		if(text != null)
+			return text;
+		char[] chars = new char[MAX_PACKED_LENGTH];
+		int length = 0;
+		for(long rest = packed; rest != 0; rest >>>= 4)
+			chars[length++] = SYMBOLS[(int)(rest & 0xF)];
+		return new String(chars, 0, length);
+	}
+}
@@ -0,0 +1,37 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+
+/**
+ * A source of tokens for {@link JSONParser}.
+ * 
+ * @see Yylex
+ * @see Utf8Lexer
+ */
+interface JSONLexer {
+	/**
+	 * @return The next token, or null at the end of the input.
+	 */
+	Yytoken yylex() throws IOException, ParseException;
+	
+	/**
+	 * @return The position of the beginning of the current token.
+	 */
+	int getPosition();
+	
+	/**
+	 * @param numberMode - How numbers are converted, one of the JSONParser.NUMBERS_* modes.
+	 */
+	void setNumberMode(int numberMode);
+	
+	/**
+	 * Skips the next value without tokenizing it. Objects and arrays are only scanned for
+	 * bracket balance, strings for their closing quote, and numbers and literals run to the next delimiter,
+	 * so a skipped value isn't validated.
+	 * 
+	 * @return false, having skipped only whitespace, if the input doesn't continue with a value
+	 * (ie. it ends, or the next char is one of <code>, : } ]</code>).
+	 * @throws ParseException if the input ends inside the value.
+	 */
+	boolean skipValue() throws IOException, ParseException;
+}
@@ -5,18 +5,26 @@
 package org.json.simple.parser;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.LazyNumber;
 
 
 /**
- * Parser for JSON text. Please note that JSONParser is NOT thread-safe.
+ * Parser for JSON text. Please note that JSONParser is NOT thread-safe;
+ * use {@link #acquire()} to reuse a parser per thread.
+ * <p>
+ * Text can be read as chars from a Reader or String, or as UTF-8 encoded bytes from an InputStream
+ * or ByteBuffer. Bytes are lexed directly, without decoding them into chars first; positions
+ * reported for byte input are byte offsets.
  * 
  * @author FangYidong<fangyidong@yahoo.com.cn>
  */
@@ -30,16 +38,195 @@ public class JSONParser {
 	public static final int S_END=6;
 	public static final int S_IN_ERROR=-1;
 	
-	private LinkedList handlerStatusStack;
-	private Yylex lexer = new Yylex((Reader)null);
+	/** Numbers are converted as they're read: integers to Long, anything else to Double. */
+	public static final int NUMBERS_EAGER=0;
+	/** Numbers are kept as {@link LazyNumber}s holding their text, and only converted when they're used. */
+	public static final int NUMBERS_LAZY=1;
+	/**
+	 * Numbers are converted without losing precision: integers to Long, or to BigInteger if they're
+	 * outside the range of a long, and anything else to BigDecimal.
+	 */
+	public static final int NUMBERS_BIG=2;
+	
+	/** the idle parser of each thread */
+	private static final ThreadLocal<JSONParser> POOL = new ThreadLocal<JSONParser>();
+	/** stacks deeper than this aren't kept once a parser is released */
+	private static final int MAX_RETAINED_DEPTH = 1024;
+	
+	private int[] statusStack = new int[16];
+	private int statusDepth;
+	private Object[] valueStack = new Object[16];
+	private int valueDepth;
+	private boolean handlerStarted;
+	private Yylex charLexer = new Yylex((Reader)null);
+	private Utf8Lexer byteLexer;
+	private JSONLexer lexer = charLexer;
 	private Yytoken token = null;
 	private int status = S_INIT;
+	private int numberMode = NUMBERS_EAGER;
+	private int maxDepth = Integer.MAX_VALUE;
+	private int containerDepth;
+	private Projection projection;
+	/** the selection inside each open container, indexed by depth; null where everything is selected */
+	private Object[] projectionStack;
+	/** the index of the current element of each open array, counted while projecting */
+	private int[] indexStack;
+	/** the selection inside the next container to open */
+	private Projection pendingProjection;
+	
+	/**
+	 * Takes the calling thread's pooled parser, or creates a new one if it is in use (eg. by a
+	 * ContentHandler that parses another document while it's called back).
+	 * A pooled parser keeps its lexer buffers and state stacks between documents, so parsing
+	 * many small documents doesn't re-allocate them each time.
+	 * 
+	 * Hand the parser back with {@link #release(JSONParser)} once the document is parsed,
+	 * and don't use it after that.
+	 * 
+	 * @return a parser for the calling thread's exclusive use
+	 */
+	public static JSONParser acquire(){
+		JSONParser parser = POOL.get();
+		if(parser == null)
+			return new JSONParser();
+		POOL.set(null);
+		return parser;
+	}
+	
+	/**
+	 * Returns a parser to the calling thread's pool. Its input and parsed values are dropped,
+	 * so the pool doesn't keep them reachable.
+	 * 
+	 * @see #acquire()
+	 * @param parser - A parser obtained from {@link #acquire()}.
+	 */
+	public static void release(JSONParser parser){
+		parser.charLexer.release();
+		if(parser.byteLexer != null)
+			parser.byteLexer.release();
+		parser.lexer = parser.charLexer;
+		parser.setNumberMode(NUMBERS_EAGER);
+		parser.setMaxDepth(Integer.MAX_VALUE);
+		parser.setProjection(null);
+		parser.reset();
+		if(parser.statusStack.length > MAX_RETAINED_DEPTH)
+			parser.statusStack = new int[16];
+		if(parser.valueStack.length > MAX_RETAINED_DEPTH)
+			parser.valueStack = new Object[16];
+		if(parser.projectionStack != null && parser.projectionStack.length > MAX_RETAINED_DEPTH){
+			parser.projectionStack = null;
+			parser.indexStack = null;
+		}
+		POOL.set(parser);
+	}
+	
+	/*
+	 * The status and value stacks are plain arrays that grow as needed and are kept across documents,
+	 * so parsing doesn't allocate for every container or key.
+	 */
+	private void pushStatus(int status) throws ParseException{
+		if(status == S_IN_OBJECT || status == S_IN_ARRAY){
+			if(containerDepth == maxDepth)
+				throw new ParseException(getPosition(), ParseException.ERROR_MAX_DEPTH_EXCEEDED, Integer.valueOf(maxDepth));
+			containerDepth++;
+			if(projection != null)
+				pushProjection();
+		}
+		if(statusDepth == statusStack.length)
+			statusStack = Arrays.copyOf(statusStack, statusDepth * 2);
+		statusStack[statusDepth++] = status;
+	}
+	
+	private void pushProjection(){
+		if(projectionStack == null){
+			projectionStack = new Object[16];
+			indexStack = new int[16];
+		}
+		if(containerDepth == projectionStack.length){
+			projectionStack = Arrays.copyOf(projectionStack, containerDepth * 2);
+			indexStack = Arrays.copyOf(indexStack, containerDepth * 2);
+		}
+		projectionStack[containerDepth] = pendingProjection;
+		indexStack[containerDepth] = 0;
+	}
 	
-	private int peekStatus(LinkedList statusStack){
-		if(statusStack.size()==0)
+	/**
+	 * Skips the value of an object member, without tokenizing it, if the projection leaves it out.
+	 * 
+	 * @return Whether the member was skipped.
+	 */
+	private boolean skipMember(String key) throws IOException, ParseException{
+		Projection selection = projection == null ? null : (Projection)projectionStack[containerDepth];
+		if(selection == null){
+			pendingProjection = null;
+			return false;
+		}
+		Projection member = selection.child(key);
+		if(member != null){
+			pendingProjection = member.isWhole() ? null : member;
+			return false;
+		}
+		if(!lexer.skipValue()){
+			nextToken();
+			if(token.type != Yytoken.TYPE_COLON || !lexer.skipValue())
+				throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+		}
+		return true;
+	}
+	
+	/**
+	 * Skips the next element of the current array, without tokenizing it, if the projection leaves it out.
+	 * 
+	 * @return Whether an element was skipped.
+	 * @see #keepsPlaceOfSkipped()
+	 */
+	private boolean skipElement() throws IOException, ParseException{
+		Projection selection = projection == null ? null : (Projection)projectionStack[containerDepth];
+		if(selection == null){
+			pendingProjection = null;
+			return false;
+		}
+		Projection element = selection.child(indexStack[containerDepth]);
+		if(element != null){
+			pendingProjection = element.isWhole() ? null : element;
+			return false;
+		}
+		return lexer.skipValue();
+	}
+	
+	/**
+	 * @return Whether the element just skipped has to be replaced by null, to keep the indices of the selected elements after it.
+	 */
+	private boolean keepsPlaceOfSkipped(){
+		return ((Projection)projectionStack[containerDepth]).keepsPlaceOf(indexStack[containerDepth]);
+	}
+	
+	private void popStatus(){
+		int status = statusStack[--statusDepth];
+		if(status == S_IN_OBJECT || status == S_IN_ARRAY)
+			containerDepth--;
+	}
+	
+	private int peekStatus(){
+		if(statusDepth==0)
 			return -1;
-		Integer status=(Integer)statusStack.getFirst();
-		return status.intValue();
+		return statusStack[statusDepth - 1];
+	}
+	
+	private void pushValue(Object value){
+		if(valueDepth == valueStack.length)
+			valueStack = Arrays.copyOf(valueStack, valueDepth * 2);
+		valueStack[valueDepth++] = value;
+	}
+	
+	private Object popValue(){
+		Object value = valueStack[--valueDepth];
+		valueStack[valueDepth] = null;
+		return value;
+	}
+	
+	private Object peekValue(){
+		return valueStack[valueDepth - 1];
 	}
 	
     /**
@@ -49,7 +236,12 @@ public class JSONParser {
     public void reset(){
         token = null;
         status = S_INIT;
-        handlerStatusStack = null;
+        statusDepth = 0;
+        containerDepth = 0;
+        pendingProjection = projection == null || projection.isWhole() ? null : projection;
+        while(valueDepth > 0)
+            valueStack[--valueDepth] = null;
+        handlerStarted = false;
     }
     
     /**
@@ -60,10 +252,132 @@ public class JSONParser {
      * @throws ParseException
      */
 	public void reset(Reader in){
-		lexer.yyreset(in);
+		charLexer.yyreset(in);
+		lexer = charLexer;
+		reset();
+	}
+	
+	/**
+	 * Reset the parser to the initial state with a new UTF-8 encoded byte stream.
+	 * 
+	 * @param in - The new byte stream.
+	 */
+	public void reset(InputStream in){
+		byteLexer().reset(in);
+		lexer = byteLexer;
 		reset();
 	}
 	
+	/**
+	 * Reset the parser to the initial state with a new buffer of UTF-8 encoded bytes.
+	 * The bytes from the buffer's position to its limit are parsed; the buffer itself isn't modified.
+	 * 
+	 * @param in - The new byte buffer.
+	 */
+	public void reset(ByteBuffer in){
+		byteLexer().reset(in);
+		lexer = byteLexer;
+		reset();
+	}
+	
+	/**
+	 * Reset the parser to the initial state with a sequence of buffers holding UTF-8 encoded bytes,
+	 * eg. the consecutive regions of a memory-mapped file that is too large for a single buffer.
+	 * The buffers are read one after the other; none of them is modified.
+	 * 
+	 * @param in - The new byte buffers.
+	 */
+	public void reset(ByteBuffer[] in){
+		byteLexer().reset(in);
+		lexer = byteLexer;
+		reset();
+	}
+	
+	private Utf8Lexer byteLexer(){
+		if(byteLexer == null){
+			byteLexer = new Utf8Lexer();
+			byteLexer.setNumberMode(numberMode);
+		}
+		return byteLexer;
+	}
+	
+	/**
+	 * Sets how numbers are converted from now on. The mode is kept across resets.
+	 * 
+	 * @param numberMode - {@link #NUMBERS_EAGER} (the default), {@link #NUMBERS_LAZY} or {@link #NUMBERS_BIG}.
+	 */
+	public void setNumberMode(int numberMode){
+		this.numberMode = numberMode;
+		charLexer.setNumberMode(numberMode);
+		if(byteLexer != null)
+			byteLexer.setNumberMode(numberMode);
+	}
+	
+	public int getNumberMode(){
+		return numberMode;
+	}
+	
+	/**
+	 * Converts the text of a JSON number the way the parser does in the given number mode,
+	 * eg. for a number that was found in a document without parsing it.
+	 * 
+	 * @param chars - Holds the text, which must match the JSON number grammar; it isn't checked.
+	 * @param offset - Where the text starts.
+	 * @param length - The length of the text.
+	 * @param numberMode - {@link #NUMBERS_EAGER}, {@link #NUMBERS_LAZY} or {@link #NUMBERS_BIG}.
+	 * @return The number, as the parser would return it.
+	 * 
+	 * @throws NumberFormatException in eager mode, if an integer is outside the range of a long.
+	 */
+	public static Number toNumber(char[] chars, int offset, int length, int numberMode){
+		boolean isDouble = false;
+		for(int i = offset; i < offset + length && !isDouble; i++){
+			char c = chars[i];
+			isDouble = c == '.' || c == 'e' || c == 'E';
+		}
+		switch(numberMode){
+		case NUMBERS_LAZY:
+			return new LazyNumber(chars, offset, length);
+		case NUMBERS_BIG:
+			return isDouble ? (Number)NumberScanner.toBigDecimal(chars, offset, length) : NumberScanner.toInteger(chars, offset, length);
+		default:
+			return isDouble ? (Number)NumberScanner.toDouble(chars, offset, length) : NumberScanner.toLong(chars, offset, length);
+		}
+	}
+	
+	/**
+	 * Limits how deeply objects and arrays may be nested. Input that nests deeper fails with
+	 * {@link ParseException#ERROR_MAX_DEPTH_EXCEEDED} as soon as the limit is passed.
+	 * There's no limit by default. The limit is kept across resets.
+	 * 
+	 * @param maxDepth - The maximum number of objects and arrays a value may be nested in, counting the root.
+	 */
+	public void setMaxDepth(int maxDepth){
+		this.maxDepth = maxDepth;
+	}
+	
+	public int getMaxDepth(){
+		return maxDepth;
+	}
+	
+	/**
+	 * Only parses the parts of the input a projection selects. Everything else is skipped by the lexer,
+	 * which only scans it for bracket balance, so no tokens or values are created for it
+	 * (and it isn't validated). Objects lose their members that aren't selected, and arrays have theirs
+	 * replaced by null, up to the last selected element, so the selected elements keep their indices.
+	 * The projection is kept across resets.
+	 * 
+	 * @param projection - The parts of the input to parse, or null (the default) to parse everything.
+	 */
+	public void setProjection(Projection projection){
+		this.projection = projection;
+		pendingProjection = projection == null || projection.isWhole() ? null : projection;
+	}
+	
+	public Projection getProjection(){
+		return projection;
+	}
+	
 	/**
 	 * @return The position of the beginning of the current token.
 	 */
@@ -92,6 +406,42 @@ public class JSONParser {
 		return parse(in, (ContainerFactory)null);
 	}
 	
+	public Object parse(InputStream in) throws IOException, ParseException{
+		return parse(in, (ContainerFactory)null);
+	}
+	
+	public Object parse(ByteBuffer in) throws ParseException{
+		return parse(in, (ContainerFactory)null);
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text into java object from the input stream.
+	 * 
+	 * @see #parse(Reader, ContainerFactory)
+	 */
+	public Object parse(InputStream in, ContainerFactory containerFactory) throws IOException, ParseException{
+		reset(in);
+		return parseValue(containerFactory);
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text into java object from the buffer.
+	 * 
+	 * @see #parse(Reader, ContainerFactory)
+	 */
+	public Object parse(ByteBuffer in, ContainerFactory containerFactory) throws ParseException{
+		reset(in);
+		try{
+			return parseValue(containerFactory);
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+	
 	/**
 	 * Parse JSON text into java object from the input source.
 	 * 	
@@ -110,29 +460,35 @@ public class JSONParser {
 	 */
 	public Object parse(Reader in, ContainerFactory containerFactory) throws IOException, ParseException{
 		reset(in);
-		LinkedList statusStack = new LinkedList();
-		LinkedList valueStack = new LinkedList();
-		
+		return parseValue(containerFactory);
+	}
+	
+	private Object parseValue(ContainerFactory containerFactory) throws IOException, ParseException{
 		try{
 			do{
+				if(status==S_IN_ARRAY && skipElement()){
+					if(keepsPlaceOfSkipped())
+						((List)peekValue()).add(null);
+					continue;
+				}
 				nextToken();
 				switch(status){
 				case S_INIT:
 					switch(token.type){
 					case Yytoken.TYPE_VALUE:
 						status=S_IN_FINISHED_VALUE;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(token.value);
+						pushStatus(status);
+						pushValue(token.value);
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(createObjectContainer(containerFactory));
+						pushStatus(status);
+						pushValue(createObjectContainer(containerFactory));
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(createArrayContainer(containerFactory));
+						pushStatus(status);
+						pushValue(createArrayContainer(containerFactory));
 						break;
 					default:
 						status=S_IN_ERROR;
@@ -141,7 +497,7 @@ public class JSONParser {
 					
 				case S_IN_FINISHED_VALUE:
 					if(token.type==Yytoken.TYPE_EOF)
-						return valueStack.removeFirst();
+						return popValue();
 					else
 						throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
 					
@@ -152,19 +508,21 @@ public class JSONParser {
 					case Yytoken.TYPE_VALUE:
 						if(token.value instanceof String){
 							String key=(String)token.value;
-							valueStack.addFirst(key);
+							if(skipMember(key))
+								break;
+							pushValue(key);
 							status=S_PASSED_PAIR_KEY;
-							statusStack.addFirst(new Integer(status));
+							pushStatus(status);
 						}
 						else{
 							status=S_IN_ERROR;
 						}
 						break;
 					case Yytoken.TYPE_RIGHT_BRACE:
-						if(valueStack.size()>1){
-							statusStack.removeFirst();
-							valueStack.removeFirst();
-							status=peekStatus(statusStack);
+						if(valueDepth>1){
+							popStatus();
+							popValue();
+							status=peekStatus();
 						}
 						else{
 							status=S_IN_FINISHED_VALUE;
@@ -181,31 +539,31 @@ public class JSONParser {
 					case Yytoken.TYPE_COLON:
 						break;
 					case Yytoken.TYPE_VALUE:
-						statusStack.removeFirst();
-						String key=(String)valueStack.removeFirst();
-						Map parent=(Map)valueStack.getFirst();
+						popStatus();
+						String key=(String)popValue();
+						Map parent=(Map)peekValue();
 						parent.put(key,token.value);
-						status=peekStatus(statusStack);
+						status=peekStatus();
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
-						statusStack.removeFirst();
-						key=(String)valueStack.removeFirst();
-						parent=(Map)valueStack.getFirst();
+						popStatus();
+						key=(String)popValue();
+						parent=(Map)peekValue();
 						List newArray=createArrayContainer(containerFactory);
 						parent.put(key,newArray);
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(newArray);
+						pushStatus(status);
+						pushValue(newArray);
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
-						statusStack.removeFirst();
-						key=(String)valueStack.removeFirst();
-						parent=(Map)valueStack.getFirst();
+						popStatus();
+						key=(String)popValue();
+						parent=(Map)peekValue();
 						Map newObject=createObjectContainer(containerFactory);
 						parent.put(key,newObject);
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(newObject);
+						pushStatus(status);
+						pushValue(newObject);
 						break;
 					default:
 						status=S_IN_ERROR;
@@ -215,36 +573,38 @@ public class JSONParser {
 				case S_IN_ARRAY:
 					switch(token.type){
 					case Yytoken.TYPE_COMMA:
+						if(projection != null)
+							indexStack[containerDepth]++;
 						break;
 					case Yytoken.TYPE_VALUE:
-						List val=(List)valueStack.getFirst();
+						List val=(List)peekValue();
 						val.add(token.value);
 						break;
 					case Yytoken.TYPE_RIGHT_SQUARE:
-						if(valueStack.size()>1){
-							statusStack.removeFirst();
-							valueStack.removeFirst();
-							status=peekStatus(statusStack);
+						if(valueDepth>1){
+							popStatus();
+							popValue();
+							status=peekStatus();
 						}
 						else{
 							status=S_IN_FINISHED_VALUE;
 						}
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
-						val=(List)valueStack.getFirst();
+						val=(List)peekValue();
 						Map newObject=createObjectContainer(containerFactory);
 						val.add(newObject);
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(newObject);
+						pushStatus(status);
+						pushValue(newObject);
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
-						val=(List)valueStack.getFirst();
+						val=(List)peekValue();
 						List newArray=createArrayContainer(containerFactory);
 						val.add(newArray);
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(newArray);
+						pushStatus(status);
+						pushValue(newArray);
 						break;
 					default:
 						status=S_IN_ERROR;
@@ -312,6 +672,74 @@ public class JSONParser {
 		parse(in, contentHandler, false);
 	}
 	
+	public void parse(InputStream in, ContentHandler contentHandler) throws IOException, ParseException{
+		parse(in, contentHandler, false);
+	}
+	
+	public void parse(ByteBuffer in, ContentHandler contentHandler) throws ParseException{
+		parse(in, contentHandler, false);
+	}
+	
+	/**
+	 * Stream processing of UTF-8 encoded JSON text from the input stream.
+	 * 
+	 * @see #parse(Reader, ContentHandler, boolean)
+	 */
+	public void parse(InputStream in, ContentHandler contentHandler, boolean isResume) throws IOException, ParseException{
+		if(!isResume || !handlerStarted){
+			reset(in);
+			handlerStarted = true;
+		}
+		parseEvents(contentHandler);
+	}
+	
+	public void parse(ByteBuffer[] in, ContentHandler contentHandler) throws ParseException{
+		parse(in, contentHandler, false);
+	}
+	
+	/**
+	 * Stream processing of UTF-8 encoded JSON text from a sequence of buffers.
+	 * 
+	 * @see #reset(ByteBuffer[])
+	 * @see #parse(Reader, ContentHandler, boolean)
+	 */
+	public void parse(ByteBuffer[] in, ContentHandler contentHandler, boolean isResume) throws ParseException{
+		if(!isResume || !handlerStarted){
+			reset(in);
+			handlerStarted = true;
+		}
+		try{
+			parseEvents(contentHandler);
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+	
+	/**
+	 * Stream processing of UTF-8 encoded JSON text from the buffer.
+	 * 
+	 * @see #parse(Reader, ContentHandler, boolean)
+	 */
+	public void parse(ByteBuffer in, ContentHandler contentHandler, boolean isResume) throws ParseException{
+		if(!isResume || !handlerStarted){
+			reset(in);
+			handlerStarted = true;
+		}
+		try{
+			parseEvents(contentHandler);
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+	
 	/**
 	 * Stream processing of JSON text.
 	 * 
@@ -327,20 +755,14 @@ public class JSONParser {
 	 * @throws ParseException
 	 */
 	public void parse(Reader in, ContentHandler contentHandler, boolean isResume) throws IOException, ParseException{
-		if(!isResume){
+		if(!isResume || !handlerStarted){
 			reset(in);
-			handlerStatusStack = new LinkedList();
+			handlerStarted = true;
 		}
-		else{
-			if(handlerStatusStack == null){
-				isResume = false;
-				reset(in);
-				handlerStatusStack = new LinkedList();
-			}
-		}
-		
-		LinkedList statusStack = handlerStatusStack;	
-		
+		parseEvents(contentHandler);
+	}
+	
+	private void parseEvents(ContentHandler contentHandler) throws IOException, ParseException{
 		try{
 			do{
 				switch(status){
@@ -350,19 +772,19 @@ public class JSONParser {
 					switch(token.type){
 					case Yytoken.TYPE_VALUE:
 						status=S_IN_FINISHED_VALUE;
-						statusStack.addFirst(new Integer(status));
+						pushStatus(status);
 						if(!contentHandler.primitive(token.value))
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
+						pushStatus(status);
 						if(!contentHandler.startObject())
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
+						pushStatus(status);
 						if(!contentHandler.startArray())
 							return;
 						break;
@@ -391,8 +813,10 @@ public class JSONParser {
 					case Yytoken.TYPE_VALUE:
 						if(token.value instanceof String){
 							String key=(String)token.value;
+							if(skipMember(key))
+								break;
 							status=S_PASSED_PAIR_KEY;
-							statusStack.addFirst(new Integer(status));
+							pushStatus(status);
 							if(!contentHandler.startObjectEntry(key))
 								return;
 						}
@@ -401,9 +825,9 @@ public class JSONParser {
 						}
 						break;
 					case Yytoken.TYPE_RIGHT_BRACE:
-						if(statusStack.size()>1){
-							statusStack.removeFirst();
-							status=peekStatus(statusStack);
+						if(statusDepth>1){
+							popStatus();
+							status=peekStatus();
 						}
 						else{
 							status=S_IN_FINISHED_VALUE;
@@ -423,26 +847,26 @@ public class JSONParser {
 					case Yytoken.TYPE_COLON:
 						break;
 					case Yytoken.TYPE_VALUE:
-						statusStack.removeFirst();
-						status=peekStatus(statusStack);
+						popStatus();
+						status=peekStatus();
 						if(!contentHandler.primitive(token.value))
 							return;
 						if(!contentHandler.endObjectEntry())
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
-						statusStack.removeFirst();
-						statusStack.addFirst(new Integer(S_IN_PAIR_VALUE));
+						popStatus();
+						pushStatus(S_IN_PAIR_VALUE);
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
+						pushStatus(status);
 						if(!contentHandler.startArray())
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
-						statusStack.removeFirst();
-						statusStack.addFirst(new Integer(S_IN_PAIR_VALUE));
+						popStatus();
+						pushStatus(S_IN_PAIR_VALUE);
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
+						pushStatus(status);
 						if(!contentHandler.startObject())
 							return;
 						break;
@@ -456,25 +880,32 @@ public class JSONParser {
 					 * S_IN_PAIR_VALUE is just a marker to indicate the end of an object entry, it doesn't proccess any token,
 					 * therefore delay consuming token until next round.
 					 */
-					statusStack.removeFirst();
-					status = peekStatus(statusStack);
+					popStatus();
+					status = peekStatus();
 					if(!contentHandler.endObjectEntry())
 						return;
 					break;
 					
 				case S_IN_ARRAY:
+					if(skipElement()){
+						if(keepsPlaceOfSkipped() && !contentHandler.primitive(null))
+							return;
+						break;
+					}
 					nextToken();
 					switch(token.type){
 					case Yytoken.TYPE_COMMA:
+						if(projection != null)
+							indexStack[containerDepth]++;
 						break;
 					case Yytoken.TYPE_VALUE:
 						if(!contentHandler.primitive(token.value))
 							return;
 						break;
 					case Yytoken.TYPE_RIGHT_SQUARE:
-						if(statusStack.size()>1){
-							statusStack.removeFirst();
-							status=peekStatus(statusStack);
+						if(statusDepth>1){
+							popStatus();
+							status=peekStatus();
 						}
 						else{
 							status=S_IN_FINISHED_VALUE;
@@ -484,13 +915,13 @@ public class JSONParser {
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
+						pushStatus(status);
 						if(!contentHandler.startObject())
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
+						pushStatus(status);
 						if(!contentHandler.startArray())
 							return;
 						break;
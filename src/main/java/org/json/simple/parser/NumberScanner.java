@@ -0,0 +1,105 @@
+package org.json.simple.parser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Converts the text of a JSON number straight from a lexer's buffer, without making a String of it first.
+ * The text must already have been matched by the lexer's number grammar.
+ * <p>
+ * Doubles whose significand fits in 53 bits and whose decimal exponent is at most 22 are converted
+ * with a single exact multiplication or division, which IEEE 754 rounds correctly (Clinger's fast path).
+ * Anything else falls back to Double.valueOf.
+ */
+final class NumberScanner {
+	/** the powers of ten that are exact doubles */
+	private static final double[] POW10 = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+
+	private NumberScanner(){
+	}
+
+	/**
+	 * @throws NumberFormatException if the integer is outside the range of a long, like Long.valueOf.
+	 */
+	static Long toLong(char[] chars, int offset, int length){
+		int i = offset;
+		int end = offset + length;
+		boolean negative = chars[i] == '-';
+		if(negative)
+			i++;
+		if(end - i > 18)
+			return Long.valueOf(new String(chars, offset, length));
+		long value = 0;
+		for(; i < end; i++)
+			value = value * 10 + (chars[i] - '0');
+		return Long.valueOf(negative ? -value : value);
+	}
+
+	static Double toDouble(char[] chars, int offset, int length){
+		int i = offset;
+		int end = offset + length;
+		boolean negative = chars[i] == '-';
+		if(negative)
+			i++;
+
+		long significand = 0;
+		int digits = 0;
+		int exponent = 0;
+		for(; i < end && isDigit(chars[i]); i++){
+			significand = significand * 10 + (chars[i] - '0');
+			if(significand != 0)
+				digits++;
+		}
+		if(i < end && chars[i] == '.'){
+			for(i++; i < end && isDigit(chars[i]); i++){
+				significand = significand * 10 + (chars[i] - '0');
+				if(significand != 0)
+					digits++;
+				exponent--;
+			}
+		}
+		if(i < end){
+			// exponent part
+			i++;
+			boolean negativeExponent = chars[i] == '-';
+			if(negativeExponent || chars[i] == '+')
+				i++;
+			int e = 0;
+			for(; i < end; i++){
+				if(e < 100000)
+					e = e * 10 + (chars[i] - '0');
+			}
+			exponent += negativeExponent ? -e : e;
+		}
+
+		if(digits <= 18 && significand <= MAX_EXACT_SIGNIFICAND && exponent >= -22 && exponent <= 22){
+			double value = significand;
+			value = exponent < 0 ? value / POW10[-exponent] : value * POW10[exponent];
+			return Double.valueOf(negative ? -value : value);
+		}
+		return Double.valueOf(new String(chars, offset, length));
+	}
+
+	/**
+	 * @return A Long if the integer is within the range of a long, otherwise a BigInteger.
+	 */
+	static Number toInteger(char[] chars, int offset, int length){
+		int digits = chars[offset] == '-' ? length - 1 : length;
+		if(digits <= 18)
+			return toLong(chars, offset, length);
+		BigInteger value = new BigInteger(new String(chars, offset, length));
+		return value.bitLength() < 64 ? (Number)Long.valueOf(value.longValue()) : value;
+	}
+
+	static BigDecimal toBigDecimal(char[] chars, int offset, int length){
+		return new BigDecimal(chars, offset, length);
+	}
+
+	private static boolean isDigit(char c){
+		return c >= '0' && c <= '9';
+	}
+}
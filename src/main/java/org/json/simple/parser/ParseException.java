@@ -12,6 +12,7 @@ public class ParseException extends Exception {
 	public static final int ERROR_UNEXPECTED_CHAR = 0;
 	public static final int ERROR_UNEXPECTED_TOKEN = 1;
 	public static final int ERROR_UNEXPECTED_EXCEPTION = 2;
+	public static final int ERROR_MAX_DEPTH_EXCEEDED = 3;
 
 	private int errorType;
 	private Object unexpectedObject;
@@ -59,6 +60,7 @@ public class ParseException extends Exception {
 	 * 		   	ERROR_UNEXPECTED_CHAR		java.lang.Character
 	 * 			ERROR_UNEXPECTED_TOKEN		org.json.simple.parser.Yytoken
 	 * 			ERROR_UNEXPECTED_EXCEPTION	java.lang.Exception
+	 * 			ERROR_MAX_DEPTH_EXCEEDED	java.lang.Integer (the maximum depth)
 	 */
 	public Object getUnexpectedObject() {
 		return unexpectedObject;
@@ -81,6 +83,9 @@ public class ParseException extends Exception {
 		case ERROR_UNEXPECTED_EXCEPTION:
 			sb.append("Unexpected exception at position ").append(position).append(": ").append(unexpectedObject);
 			break;
+		case ERROR_MAX_DEPTH_EXCEEDED:
+			sb.append("Maximum nesting depth (").append(unexpectedObject).append(") exceeded at position ").append(position).append(".");
+			break;
 		default:
 			sb.append("Unkown error at position ").append(position).append(".");
 			break;
@@ -0,0 +1,176 @@
+package org.json.simple.parser;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The parts of a document to parse. Values outside the projection are skipped by the lexer
+ * without being tokenized, so none of their strings, numbers or containers are created.
+ * <p>
+ * A path is a list of object keys and array indices, like the locations EasyJSON searches, and
+ * selects the value it leads to along with everything inside it. The segment <code>"*"</code>
+ * matches every member of an object or element of an array. The containers along a path are kept,
+ * but only with their selected members. Array elements that aren't selected are replaced by null,
+ * so the selected ones keep their indices; those after the last selected element are left out.
+ * <p>
+ * <b>Example</b>
+ * <p>
+ * <code>new Projection().include("header", "version").include("items", "*", "id")</code>
+ *
+ * @see JSONParser#setProjection(Projection)
+ */
+public final class Projection {
+	/** the segment that matches any key or index */
+	public static final String ANY = "*";
+
+	/** whether everything inside the value is selected */
+	private boolean whole;
+	private Map children;
+	private Projection any;
+	/** the highest array index among the children, or -1 */
+	private int lastIndex = -1;
+
+	/**
+	 * Creates a projection that doesn't select anything yet.
+	 */
+	public Projection(){
+	}
+
+	/**
+	 * Selects a value and everything inside it. An empty path selects the whole document.
+	 *
+	 * @param path - The keys and indices leading to the value; <code>"*"</code> matches them all.
+	 * @return This projection.
+	 */
+	public Projection include(String... path){
+		include(path, 0);
+		return this;
+	}
+
+	private void include(String[] path, int from){
+		if(whole)
+			return;
+		if(from == path.length){
+			whole = true;
+			children = null;
+			any = null;
+			return;
+		}
+		String segment = path[from];
+		if(ANY.equals(segment)){
+			if(any == null)
+				any = new Projection();
+			any.include(path, from + 1);
+			// the wildcard applies to the keys that are named explicitly too
+			if(children != null){
+				for(Iterator it = children.values().iterator(); it.hasNext();)
+					((Projection)it.next()).include(path, from + 1);
+			}
+			return;
+		}
+		if(children == null)
+			children = new HashMap();
+		Projection child = (Projection)children.get(segment);
+		if(child == null){
+			child = new Projection();
+			if(any != null)
+				child.merge(any);
+			putChild(segment, child);
+		}
+		child.include(path, from + 1);
+	}
+
+	private void merge(Projection other){
+		if(whole)
+			return;
+		if(other.whole){
+			whole = true;
+			children = null;
+			any = null;
+			return;
+		}
+		if(other.any != null){
+			if(any == null)
+				any = new Projection();
+			any.merge(other.any);
+			if(children != null){
+				for(Iterator it = children.values().iterator(); it.hasNext();)
+					((Projection)it.next()).merge(other.any);
+			}
+		}
+		if(other.children != null){
+			if(children == null)
+				children = new HashMap();
+			for(Iterator it = other.children.entrySet().iterator(); it.hasNext();){
+				Map.Entry entry = (Map.Entry)it.next();
+				Projection child = (Projection)children.get(entry.getKey());
+				if(child == null){
+					child = new Projection();
+					if(any != null)
+						child.merge(any);
+					putChild((String)entry.getKey(), child);
+				}
+				child.merge((Projection)entry.getValue());
+			}
+		}
+	}
+
+	private void putChild(String segment, Projection child){
+		children.put(segment, child);
+		lastIndex = Math.max(lastIndex, index(segment));
+	}
+
+	/**
+	 * @return The array index a segment names, in the form String.valueOf(int) gives it, or -1.
+	 */
+	private static int index(String segment){
+		int length = segment.length();
+		if(length == 0 || length > 10 || (length > 1 && segment.charAt(0) == '0'))
+			return -1;
+		long index = 0;
+		for(int i = 0; i < length; i++){
+			char c = segment.charAt(i);
+			if(c < '0' || c > '9')
+				return -1;
+			index = index * 10 + (c - '0');
+		}
+		return index > Integer.MAX_VALUE ? -1 : (int)index;
+	}
+
+	/**
+	 * @return Whether everything inside the value is selected.
+	 */
+	boolean isWhole(){
+		return whole;
+	}
+
+	/**
+	 * @return The selection inside the member with the given key, or null if it isn't selected.
+	 */
+	Projection child(String key){
+		if(children != null){
+			Projection child = (Projection)children.get(key);
+			if(child != null)
+				return child;
+		}
+		return any;
+	}
+
+	/**
+	 * @return Whether an element at the given index that isn't selected is replaced by null,
+	 * because a selected element comes after it.
+	 */
+	boolean keepsPlaceOf(int index){
+		return index < lastIndex;
+	}
+
+	/**
+	 * @return The selection inside the element at the given index, or null if it isn't selected.
+	 */
+	Projection child(int index){
+		if(children == null)
+			return any;
+		return child(String.valueOf(index));
+	}
+}
@@ -0,0 +1,473 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.json.simple.LazyNumber;
+
+/**
+ * Lexer for UTF-8 encoded JSON text. It scans the raw bytes, so the input never goes
+ * through a Reader's byte to char decoding; only the contents of string tokens are decoded.
+ * It produces the same tokens as Yylex, and positions are byte offsets.
+ * 
+ * @see Yylex
+ */
+class Utf8Lexer implements JSONLexer {
+	private static final int BUFFER_SIZE = 16384;
+	/** builders and buffers that grew past this many chars aren't kept once the lexer is released */
+	private static final int MAX_RETAINED_CHARS = 16384;
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+	
+	private final Yytoken leftBrace = new Yytoken(Yytoken.TYPE_LEFT_BRACE, null);
+	private final Yytoken rightBrace = new Yytoken(Yytoken.TYPE_RIGHT_BRACE, null);
+	private final Yytoken leftSquare = new Yytoken(Yytoken.TYPE_LEFT_SQUARE, null);
+	private final Yytoken rightSquare = new Yytoken(Yytoken.TYPE_RIGHT_SQUARE, null);
+	private final Yytoken comma = new Yytoken(Yytoken.TYPE_COMMA, null);
+	private final Yytoken colon = new Yytoken(Yytoken.TYPE_COLON, null);
+	
+	private StringBuilder sb = new StringBuilder();
+	private char[] numberChars = new char[64];
+	private int numberLength;
+	/** holds ASCII strings copied out of direct buffers */
+	private byte[] scratch = new byte[256];
+	
+	private InputStream in;
+	private ByteBuffer[] chunks;
+	private int nextChunk;
+	private byte[] inBuffer;
+	private ByteBuffer inByteBuffer;
+	private ByteBuffer buf = EMPTY;
+	/** number of bytes before the start of buf */
+	private long bufOffset;
+	private long tokenStart;
+	private int numberMode = JSONParser.NUMBERS_EAGER;
+	
+	/**
+	 * Resets the lexer to read from a stream, through a buffer that is kept for later resets.
+	 * Does not close the old stream.
+	 */
+	void reset(InputStream in){
+		if(inBuffer == null){
+			inBuffer = new byte[BUFFER_SIZE];
+			inByteBuffer = ByteBuffer.wrap(inBuffer);
+		}
+		this.in = in;
+		chunks = null;
+		buf = EMPTY;
+		bufOffset = 0;
+		tokenStart = 0;
+	}
+	
+	/**
+	 * Resets the lexer to read the remaining bytes of a buffer. The buffer's position isn't changed.
+	 */
+	void reset(ByteBuffer in){
+		reset(new ByteBuffer[]{in});
+	}
+	
+	/**
+	 * Resets the lexer to read the remaining bytes of several buffers, one after the other.
+	 * Tokens and multi-byte characters may span buffer boundaries. The buffers' positions aren't changed.
+	 */
+	void reset(ByteBuffer[] in){
+		this.in = null;
+		chunks = in;
+		nextChunk = 0;
+		buf = EMPTY;
+		bufOffset = 0;
+		tokenStart = 0;
+	}
+	
+	/**
+	 * Drops the references to the input, and any buffer that grew unusually large, so an idle lexer
+	 * holds on to nothing but its fixed-size read buffer.
+	 */
+	void release(){
+		in = null;
+		chunks = null;
+		buf = EMPTY;
+		if(sb.capacity() > MAX_RETAINED_CHARS)
+			sb = new StringBuilder();
+		if(numberChars.length > MAX_RETAINED_CHARS)
+			numberChars = new char[64];
+		if(scratch.length > MAX_RETAINED_CHARS)
+			scratch = new byte[256];
+	}
+	
+	public void setNumberMode(int numberMode){
+		this.numberMode = numberMode;
+	}
+	
+	public int getPosition(){
+		return (int)Math.min(tokenStart, Integer.MAX_VALUE);
+	}
+	
+	private long position(){
+		return bufOffset + buf.position();
+	}
+	
+	private boolean refill() throws IOException{
+		bufOffset += buf.limit();
+		buf = EMPTY;
+		if(chunks != null){
+			while(nextChunk < chunks.length){
+				buf = chunks[nextChunk++].slice();
+				if(buf.hasRemaining())
+					return true;
+			}
+			return false;
+		}
+		if(in == null)
+			return false;
+		int n = in.read(inBuffer);
+		if(n <= 0)
+			return false;
+		inByteBuffer.clear();
+		inByteBuffer.limit(n);
+		buf = inByteBuffer;
+		return true;
+	}
+	
+	private int read() throws IOException{
+		if(!buf.hasRemaining() && !refill())
+			return -1;
+		return buf.get() & 0xFF;
+	}
+	
+	private int peek() throws IOException{
+		if(!buf.hasRemaining() && !refill())
+			return -1;
+		return buf.get(buf.position()) & 0xFF;
+	}
+	
+	public Yytoken yylex() throws IOException, ParseException{
+		int b;
+		do{
+			b = read();
+		}while(b == ' ' || b == '\n' || b == '\r' || b == '\t');
+		tokenStart = position() - 1;
+		
+		switch(b){
+		case -1:
+			tokenStart++;
+			return null;
+		case '{':
+			return leftBrace;
+		case '}':
+			return rightBrace;
+		case '[':
+			return leftSquare;
+		case ']':
+			return rightSquare;
+		case ',':
+			return comma;
+		case ':':
+			return colon;
+		case '"':
+			String s = readString();
+			return s == null ? null : new Yytoken(Yytoken.TYPE_VALUE, s);
+		case 't':
+			expect("rue", b);
+			return new Yytoken(Yytoken.TYPE_VALUE, Boolean.TRUE);
+		case 'f':
+			expect("alse", b);
+			return new Yytoken(Yytoken.TYPE_VALUE, Boolean.FALSE);
+		case 'n':
+			expect("ull", b);
+			return new Yytoken(Yytoken.TYPE_VALUE, null);
+		case '-': case '0': case '1': case '2': case '3': case '4':
+		case '5': case '6': case '7': case '8': case '9':
+			return new Yytoken(Yytoken.TYPE_VALUE, readNumber(b));
+		default:
+			throw unexpectedChar(b, tokenStart);
+		}
+	}
+	
+	public boolean skipValue() throws IOException, ParseException{
+		int b;
+		while((b = peek()) == ' ' || b == '\n' || b == '\r' || b == '\t')
+			read();
+		tokenStart = position();
+		switch(b){
+		case -1: case ',': case ':': case '}': case ']':
+			return false;
+		case '{': case '[':
+			read();
+			skipRaw(1, false);
+			return true;
+		case '"':
+			read();
+			skipRaw(0, true);
+			return true;
+		default:
+			// a number or a literal
+			do{
+				read();
+				b = peek();
+			}while(!isDelimiter(b));
+			return true;
+		}
+	}
+	
+	/**
+	 * Scans straight through the buffered bytes until the brackets that are open balance out,
+	 * stepping over strings so the brackets inside them don't count.
+	 */
+	private void skipRaw(int depth, boolean inString) throws IOException, ParseException{
+		boolean escaped = false;
+		while(true){
+			if(!buf.hasRemaining() && !refill())
+				throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, null);
+			int pos = buf.position();
+			int limit = buf.limit();
+			while(pos < limit){
+				byte c = buf.get(pos++);
+				if(inString){
+					if(escaped)
+						escaped = false;
+					else if(c == '\\')
+						escaped = true;
+					else if(c == '"'){
+						inString = false;
+						if(depth == 0){
+							buf.position(pos);
+							return;
+						}
+					}
+				}
+				else if(c == '"')
+					inString = true;
+				else if(c == '{' || c == '[')
+					depth++;
+				else if((c == '}' || c == ']') && --depth == 0){
+					buf.position(pos);
+					return;
+				}
+			}
+			buf.position(pos);
+		}
+	}
+	
+	private static boolean isDelimiter(int b){
+		switch(b){
+		case -1: case ' ': case '\n': case '\r': case '\t':
+		case ',': case ':': case '{': case '}': case '[': case ']': case '"':
+			return true;
+		default:
+			return false;
+		}
+	}
+	
+	private void expect(String rest, int first) throws IOException, ParseException{
+		for(int i = 0; i < rest.length(); i++){
+			if(read() != rest.charAt(i))
+				throw unexpectedChar(first, tokenStart);
+		}
+	}
+	
+	/**
+	 * @return The decoded string, or null if the input ends before the closing quote.
+	 */
+	private String readString() throws IOException, ParseException{
+		sb.setLength(0);
+		boolean first = true;
+		while(true){
+			int start = buf.position();
+			int pos = start;
+			int limit = buf.limit();
+			while(pos < limit){
+				byte c = buf.get(pos);
+				if(c == '"' || c == '\\' || c < 0)
+					break;
+				pos++;
+			}
+			if(first && pos < limit && buf.get(pos) == '"'){
+				// the whole string is a single ASCII run, so it's taken straight from the buffer
+				buf.position(pos + 1);
+				return ascii(start, pos - start);
+			}
+			first = false;
+			for(int i = start; i < pos; i++)
+				sb.append((char)buf.get(i));
+			buf.position(pos);
+			
+			int b = read();
+			switch(b){
+			case -1:
+				return null;
+			case '"':
+				return sb.toString();
+			case '\\':
+				readEscape();
+				break;
+			default:
+				if(b < 0x80)
+					sb.append((char)b); // end of a chunk
+				else
+					readMultiByte(b);
+			}
+		}
+	}
+	
+	private String ascii(int start, int length){
+		if(buf.hasArray())
+			return new String(buf.array(), buf.arrayOffset() + start, length, StandardCharsets.ISO_8859_1);
+		if(scratch.length < length)
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		buf.get(start, scratch, 0, length);
+		return new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+	}
+	
+	/**
+	 * Decodes an escape sequence. Like Yylex, a backslash that doesn't start a valid escape is kept as is.
+	 */
+	private void readEscape() throws IOException{
+		switch(peek()){
+		case '"':
+			sb.append('"');
+			break;
+		case '\\':
+			sb.append('\\');
+			break;
+		case '/':
+			sb.append('/');
+			break;
+		case 'b':
+			sb.append('\b');
+			break;
+		case 'f':
+			sb.append('\f');
+			break;
+		case 'n':
+			sb.append('\n');
+			break;
+		case 'r':
+			sb.append('\r');
+			break;
+		case 't':
+			sb.append('\t');
+			break;
+		case 'u':
+			read();
+			int start = sb.length();
+			sb.append('\\').append('u');
+			int ch = 0;
+			for(int i = 0; i < 4; i++){
+				int digit = Character.digit(peek(), 16);
+				if(digit < 0)
+					return; // not an escape: keep the backslash, the 'u' and the digits read so far
+				sb.append((char)read());
+				ch = (ch << 4) | digit;
+			}
+			sb.setLength(start);
+			sb.append((char)ch);
+			return;
+		default:
+			sb.append('\\');
+			return;
+		}
+		read();
+	}
+	
+	/**
+	 * Decodes one multi-byte UTF-8 sequence, replacing malformed input with U+FFFD like a decoding Reader would.
+	 */
+	private void readMultiByte(int b) throws IOException{
+		int cp;
+		int extra;
+		if(b >= 0xC2 && b <= 0xDF){
+			cp = b & 0x1F;
+			extra = 1;
+		}
+		else if(b >= 0xE0 && b <= 0xEF){
+			cp = b & 0x0F;
+			extra = 2;
+		}
+		else if(b >= 0xF0 && b <= 0xF4){
+			cp = b & 0x07;
+			extra = 3;
+		}
+		else{
+			sb.append('\uFFFD');
+			return;
+		}
+		for(int i = 0; i < extra; i++){
+			int c = peek();
+			if((c & 0xC0) != 0x80){
+				sb.append('\uFFFD');
+				return;
+			}
+			read();
+			cp = (cp << 6) | (c & 0x3F);
+		}
+		if((extra == 2 && (cp < 0x800 || (cp >= 0xD800 && cp <= 0xDFFF)))
+				|| (extra == 3 && (cp < 0x10000 || cp > 0x10FFFF))){
+			sb.append('\uFFFD');
+			return;
+		}
+		sb.appendCodePoint(cp);
+	}
+	
+	private Object readNumber(int first) throws IOException, ParseException{
+		numberLength = 0;
+		appendNumberChar(first);
+		if(first == '-' && !isDigit(peek()))
+			throw unexpectedChar(first, tokenStart);
+		appendDigits();
+		boolean isDouble = false;
+		if(peek() == '.'){
+			long dotPosition = position();
+			appendNumberChar(read());
+			if(!isDigit(peek()))
+				throw unexpectedChar('.', dotPosition);
+			appendDigits();
+			isDouble = true;
+		}
+		int c = peek();
+		if(c == 'e' || c == 'E'){
+			long expPosition = position();
+			appendNumberChar(read());
+			c = peek();
+			if(c == '+' || c == '-')
+				appendNumberChar(read());
+			if(!isDigit(peek()))
+				throw unexpectedChar('e', expPosition);
+			appendDigits();
+			isDouble = true;
+		}
+		switch(numberMode){
+		case JSONParser.NUMBERS_LAZY:
+			return new LazyNumber(numberChars, 0, numberLength);
+		case JSONParser.NUMBERS_BIG:
+			if(isDouble)
+				return NumberScanner.toBigDecimal(numberChars, 0, numberLength);
+			return NumberScanner.toInteger(numberChars, 0, numberLength);
+		default:
+			if(isDouble)
+				return NumberScanner.toDouble(numberChars, 0, numberLength);
+			return NumberScanner.toLong(numberChars, 0, numberLength);
+		}
+	}
+	
+	private void appendDigits() throws IOException{
+		while(isDigit(peek()))
+			appendNumberChar(read());
+	}
+	
+	private void appendNumberChar(int c){
+		if(numberLength == numberChars.length)
+			numberChars = Arrays.copyOf(numberChars, numberLength * 2);
+		numberChars[numberLength++] = (char)c;
+	}
+	
+	private static boolean isDigit(int c){
+		return c >= '0' && c <= '9';
+	}
+	
+	private ParseException unexpectedChar(int c, long position){
+		return new ParseException((int)Math.min(position, Integer.MAX_VALUE), ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf((char)c));
+	}
+}
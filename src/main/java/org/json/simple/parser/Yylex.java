@@ -2,7 +2,9 @@
 
 package org.json.simple.parser;
 
-class Yylex {
+import org.json.simple.LazyNumber;
+
+class Yylex implements JSONLexer {
 
   /** This character denotes the end of file */
   public static final int YYEOF = -1;
@@ -264,12 +266,104 @@ class Yylex {
   private boolean zzAtEOF;
 
   /* user code: */
-private StringBuffer sb=new StringBuffer();
+private StringBuilder sb=new StringBuilder();
+/* a string without escapes, taken straight from zzBuffer when its closing quote is already buffered */
+private String run;
+private int numberMode=JSONParser.NUMBERS_EAGER;
+
+public void setNumberMode(int numberMode){
+	this.numberMode=numberMode;
+}
 
-int getPosition(){
+public int getPosition(){
 	return yychar;
 }
 
+public boolean skipValue() throws java.io.IOException, ParseException{
+	int c;
+	while((c=skipPeek())==' '||c=='\n'||c=='\r'||c=='\t')
+		zzMarkedPos++;
+	yychar+=zzMarkedPos-zzStartRead;
+	zzStartRead=zzMarkedPos;
+	switch(c){
+	case -1: case ',': case ':': case '}': case ']':
+		return false;
+	case '{': case '[':
+		zzMarkedPos++;
+		skipRaw(1,false);
+		return true;
+	case '"':
+		zzMarkedPos++;
+		skipRaw(0,true);
+		return true;
+	default:
+		// a number or a literal
+		do{
+			zzMarkedPos++;
+			c=skipPeek();
+		}while(!isDelimiter(c));
+		return true;
+	}
+}
+
+/* scans straight through zzBuffer until the open brackets balance out, stepping over strings */
+private void skipRaw(int depth, boolean inString) throws java.io.IOException, ParseException{
+	boolean escaped=false;
+	while(true){
+		if(skipPeek()==-1)
+			throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, null);
+		char[] buffer=zzBuffer;
+		int pos=zzMarkedPos;
+		int end=zzEndRead;
+		while(pos<end){
+			char c=buffer[pos++];
+			if(inString){
+				if(escaped)
+					escaped=false;
+				else if(c=='\\')
+					escaped=true;
+				else if(c=='"'){
+					inString=false;
+					if(depth==0){
+						zzMarkedPos=pos;
+						return;
+					}
+				}
+			}
+			else if(c=='"')
+				inString=true;
+			else if(c=='{'||c=='[')
+				depth++;
+			else if((c=='}'||c==']')&&--depth==0){
+				zzMarkedPos=pos;
+				return;
+			}
+		}
+		zzMarkedPos=pos;
+	}
+}
+
+/* the char after the last token or skipped text, or -1 at the end of the input; skipped text is dropped from zzBuffer when it's refilled */
+private int skipPeek() throws java.io.IOException{
+	if(zzMarkedPos>=zzEndRead){
+		yychar+=zzMarkedPos-zzStartRead;
+		zzStartRead=zzCurrentPos=zzMarkedPos;
+		if(zzRefill())
+			return -1;
+	}
+	return zzBuffer[zzMarkedPos];
+}
+
+private static boolean isDelimiter(int c){
+	switch(c){
+	case -1: case ' ': case '\n': case '\r': case '\t':
+	case ',': case ':': case '{': case '}': case '[': case ']': case '"':
+		return true;
+	default:
+		return false;
+	}
+}
+
 
 
   /**
@@ -398,6 +492,20 @@ int getPosition(){
   }
 
 
+  /**
+   * Drops the reference to the reader, and shrinks the buffers back to their
+   * initial size if a long token made them grow.
+   */
+  void release() {
+    yyreset(null);
+    if (zzBuffer.length > ZZ_BUFFERSIZE)
+      zzBuffer = new char[ZZ_BUFFERSIZE];
+    if (sb.capacity() > ZZ_BUFFERSIZE)
+      sb = new StringBuilder();
+    run = null;
+  }
+
+
   /**
    * Returns the current lexical state.
    */
@@ -571,11 +679,14 @@ int getPosition(){
 
       switch (zzAction < 0 ? zzAction : ZZ_ACTION[zzAction]) {
         case 11: 
-          { sb.append(yytext());
+          { if (sb.length() == 0 && zzMarkedPos < zzEndRead && zzBuffer[zzMarkedPos] == '"')
+              run = new String(zzBuffer, zzStartRead, zzMarkedPos - zzStartRead);
+            else
+              sb.append(zzBuffer, zzStartRead, zzMarkedPos - zzStartRead);
           }
         case 25: break;
         case 4: 
-          { sb = null; sb = new StringBuffer(); yybegin(STRING_BEGIN);
+          { sb.setLength(0); run = null; yybegin(STRING_BEGIN);
           }
         case 26: break;
         case 16: 
@@ -595,7 +706,7 @@ int getPosition(){
           }
         case 30: break;
         case 13: 
-          { yybegin(YYINITIAL);return new Yytoken(Yytoken.TYPE_VALUE, sb.toString());
+          { yybegin(YYINITIAL);return new Yytoken(Yytoken.TYPE_VALUE, run != null ? run : sb.toString());
           }
         case 31: break;
         case 12: 
@@ -603,7 +714,13 @@ int getPosition(){
           }
         case 32: break;
         case 21: 
-          { Double val=Double.valueOf(yytext()); return new Yytoken(Yytoken.TYPE_VALUE, val);
+          { Object val;
+            switch(numberMode){
+            case JSONParser.NUMBERS_LAZY: val=new LazyNumber(zzBuffer, zzStartRead, zzMarkedPos-zzStartRead); break;
+            case JSONParser.NUMBERS_BIG: val=NumberScanner.toBigDecimal(zzBuffer, zzStartRead, zzMarkedPos-zzStartRead); break;
+            default: val=NumberScanner.toDouble(zzBuffer, zzStartRead, zzMarkedPos-zzStartRead);
+            }
+            return new Yytoken(Yytoken.TYPE_VALUE, val);
           }
         case 33: break;
         case 1: 
@@ -657,7 +774,13 @@ int getPosition(){
           }
         case 44: break;
         case 2: 
-          { Long val=Long.valueOf(yytext()); return new Yytoken(Yytoken.TYPE_VALUE, val);
+          { Object val;
+            switch(numberMode){
+            case JSONParser.NUMBERS_LAZY: val=new LazyNumber(zzBuffer, zzStartRead, zzMarkedPos-zzStartRead); break;
+            case JSONParser.NUMBERS_BIG: val=NumberScanner.toInteger(zzBuffer, zzStartRead, zzMarkedPos-zzStartRead); break;
+            default: val=NumberScanner.toLong(zzBuffer, zzStartRead, zzMarkedPos-zzStartRead);
+            }
+            return new Yytoken(Yytoken.TYPE_VALUE, val);
           }
         case 45: break;
         case 18: 
@@ -0,0 +1,205 @@
+package xyz.victorolaitan.easyjson;
+
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.ParseException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Binds the parser's token stream straight onto instances of a class, following the same rules as
+ * {@link DatabaseHelper#deserializeToClass(Class, EasyJSON)} without building a node tree first.
+ * <p>
+ * With a consumer, the document root must be an array of records; each record is handed to the
+ * consumer as soon as it's complete and isn't retained.
+ */
+class BindingHandler<T> implements ContentHandler {
+    private final Class<T> rootClass;
+    private final Consumer<? super T> consumer;
+    private final Deque<Frame> stack = new ArrayDeque<>();
+    private int skipDepth;
+    private T result;
+
+    BindingHandler(Class<T> rootClass, Consumer<? super T> consumer) {
+        this.rootClass = rootClass;
+        this.consumer = consumer;
+    }
+
+    T getResult() {
+        return result;
+    }
+
+    @Override
+    public void startJSON() {
+        stack.clear();
+        skipDepth = 0;
+        result = null;
+    }
+
+    @Override
+    public void endJSON() {
+    }
+
+    @Override
+    public boolean startObject() throws ParseException {
+        if (skipDepth > 0) {
+            skipDepth++;
+            return true;
+        }
+        Frame top = stack.peek();
+        try {
+            if (top == null) {
+                if (consumer != null) {
+                    throw new UnexpectedTokenException("Records must be read from an array.");
+                }
+                stack.push(Frame.object(ClassBinding.of(rootClass)));
+            } else if (top.records) {
+                stack.push(Frame.object(ClassBinding.of(rootClass)));
+            } else if (top.values != null) {
+                // nested structures have no value inside an array
+                top.values.add(null);
+                skipDepth = 1;
+            } else {
+                Frame frame = Frame.object(ClassBinding.of(top.pendingField.type));
+                top.pendingField.set(top.instance, frame.instance);
+                stack.push(frame);
+            }
+        } catch (EasyJSONException e) {
+            throw EasyJSONException.tunnel(e);
+        } catch (IllegalAccessException e) {
+            throw EasyJSONException.tunnel(new EasyJSONException(EasyJSONException.ILLEGAL_ACCESS, e));
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean endObject() {
+        if (skipDepth > 0) {
+            skipDepth--;
+            return true;
+        }
+        Frame frame = stack.pop();
+        Frame parent = stack.peek();
+        if (parent == null) {
+            result = (T) frame.instance;
+        } else if (parent.records) {
+            consumer.accept((T) frame.instance);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean startObjectEntry(String key) throws ParseException {
+        if (skipDepth == 0) {
+            try {
+                stack.element().pendingField = stack.element().binding.field(key);
+            } catch (EasyJSONException e) {
+                throw EasyJSONException.tunnel(e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry() {
+        return true;
+    }
+
+    @Override
+    public boolean startArray() throws ParseException {
+        if (skipDepth > 0) {
+            skipDepth++;
+            return true;
+        }
+        Frame top = stack.peek();
+        if (top == null) {
+            if (consumer == null) {
+                throw EasyJSONException.tunnel(
+                        new UnexpectedTokenException("EasyJSON can only bind documents with an object root."));
+            }
+            stack.push(Frame.records());
+        } else if (top.records) {
+            throw EasyJSONException.tunnel(new UnexpectedTokenException("Only structures can be bound to a class."));
+        } else if (top.values != null) {
+            // nested arrays have no value inside an array
+            top.values.add(null);
+            skipDepth = 1;
+        } else if (top.pendingField.kind == ClassBinding.Kind.LIST) {
+            stack.push(Frame.list());
+        } else {
+            // arrays are only bound to list fields
+            skipDepth = 1;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endArray() throws ParseException {
+        if (skipDepth > 0) {
+            skipDepth--;
+            return true;
+        }
+        Frame frame = stack.pop();
+        Frame parent = stack.peek();
+        if (parent != null && !frame.records) {
+            try {
+                parent.pendingField.set(parent.instance, frame.values);
+            } catch (IllegalAccessException e) {
+                throw EasyJSONException.tunnel(new EasyJSONException(EasyJSONException.ILLEGAL_ACCESS, e));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean primitive(Object value) throws ParseException {
+        if (skipDepth > 0) {
+            return true;
+        }
+        Frame top = stack.peek();
+        if (top == null || top.records) {
+            throw EasyJSONException.tunnel(new UnexpectedTokenException("Only structures can be bound to a class."));
+        }
+        if (top.values != null) {
+            top.values.add(value);
+        } else {
+            try {
+                top.pendingField.set(top.instance, value);
+            } catch (IllegalAccessException e) {
+                throw EasyJSONException.tunnel(new EasyJSONException(EasyJSONException.ILLEGAL_ACCESS, e));
+            }
+        }
+        return true;
+    }
+
+    private static final class Frame {
+        final ClassBinding binding;
+        final Object instance;
+        final List<Object> values;
+        final boolean records;
+        ClassBinding.FieldBinding pendingField;
+
+        private Frame(ClassBinding binding, Object instance, List<Object> values, boolean records) {
+            this.binding = binding;
+            this.instance = instance;
+            this.values = values;
+            this.records = records;
+        }
+
+        static Frame object(ClassBinding binding) throws EasyJSONException {
+            return new Frame(binding, binding.newInstance(), null, false);
+        }
+
+        static Frame list() {
+            return new Frame(null, null, new ArrayList<>(), false);
+        }
+
+        static Frame records() {
+            return new Frame(null, null, null, true);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package xyz.victorolaitan.easyjson;
+
+import org.json.simple.LazyNumber;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The reflection plan the {@link DatabaseHelper} uses for one class.
+ * Fields and the zero-parameter constructor are resolved once per class and cached,
+ * and accessed through method handles the JIT can inline.
+ * <p>
+ * A primitive field's handles take and return the primitive itself, so values are boxed and unboxed
+ * with the field's own wrapper rather than through a generic conversion. Values are checked before a handle
+ * is called: anything a handle can't take (eg. a Double for an int field) goes through plain reflection,
+ * which reports it as before. Members a handle can't be created for (eg. static final fields) also fall back
+ * to plain reflection.
+ */
+final class ClassBinding {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<ClassBinding> BINDINGS = new ClassValue<>() {
+        @Override
+        protected ClassBinding computeValue(Class<?> type) {
+            return new ClassBinding(type);
+        }
+    };
+
+    static ClassBinding of(Class<?> type) {
+        return BINDINGS.get(type);
+    }
+
+    private final Class<?> type;
+    private final Constructor<?> constructor;
+    private final MethodHandle constructorHandle;
+    private final NoSuchMethodException constructorError;
+    private final FieldBinding[] fields;
+    private final Map<String, FieldBinding> fieldsByName;
+
+    private ClassBinding(Class<?> type) {
+        this.type = type;
+        Constructor<?> constructor = null;
+        NoSuchMethodException constructorError = null;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            constructorError = e;
+        }
+        this.constructor = constructor;
+        this.constructorError = constructorError;
+        this.constructorHandle = constructor == null ? null : constructorHandle(constructor);
+
+        Field[] declaredFields = type.getDeclaredFields();
+        fields = new FieldBinding[declaredFields.length];
+        fieldsByName = new HashMap<>();
+        for (int i = 0; i < declaredFields.length; i++) {
+            fields[i] = new FieldBinding(declaredFields[i]);
+            fieldsByName.put(fields[i].name, fields[i]);
+        }
+    }
+
+    Object newInstance() throws EasyJSONException {
+        if (constructor == null) {
+            throw new EasyJSONException(EasyJSONException.INSTANTIATION_ERROR, constructorError);
+        }
+        if (constructorHandle != null) {
+            try {
+                return (Object) constructorHandle.invokeExact();
+            } catch (VirtualMachineError e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new EasyJSONException(EasyJSONException.INSTANTIATION_ERROR, e);
+            }
+        }
+        try {
+            return constructor.newInstance();
+        } catch (InstantiationException | InvocationTargetException e) {
+            throw new EasyJSONException(EasyJSONException.INSTANTIATION_ERROR, e);
+        } catch (IllegalAccessException e) {
+            throw new EasyJSONException(EasyJSONException.ILLEGAL_ACCESS, e);
+        }
+    }
+
+    private static MethodHandle constructorHandle(Constructor<?> constructor) {
+        if (Modifier.isAbstract(constructor.getDeclaringClass().getModifiers())) {
+            return null;
+        }
+        try {
+            return LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (IllegalAccessException e) {
+            // constructors we can't call keep reporting ILLEGAL_ACCESS through reflection
+            return null;
+        }
+    }
+
+    /**
+     * @return the fields declared by the class, in declaration order
+     */
+    FieldBinding[] fields() {
+        return fields;
+    }
+
+    FieldBinding field(String name) throws EasyJSONException {
+        FieldBinding field = name == null ? null : fieldsByName.get(name);
+        if (field == null) {
+            throw new EasyJSONException(EasyJSONException.FIELD_NOT_FOUND,
+                    new NoSuchFieldException(type.getName() + "." + name));
+        }
+        return field;
+    }
+
+    enum Kind {
+        /**
+         * the field can hold the values of an array element
+         */
+        LIST,
+        VALUE
+    }
+
+    /**
+     * What a field holds, as far as its handles are concerned.
+     * The primitives are ordered so that a value can widen to any later one, as {@link Field#set} allows,
+     * except that chars don't widen to bytes or shorts, and nothing widens to or from booleans.
+     */
+    private enum Slot {
+        REFERENCE(Object.class), BOOLEAN(boolean.class), CHAR(char.class), BYTE(byte.class), SHORT(short.class),
+        INT(int.class), LONG(long.class), FLOAT(float.class), DOUBLE(double.class);
+
+        final Class<?> type;
+
+        Slot(Class<?> type) {
+            this.type = type;
+        }
+
+        static Slot of(Class<?> type) {
+            for (Slot slot : values()) {
+                if (slot.type == type) {
+                    return slot;
+                }
+            }
+            return REFERENCE;
+        }
+
+        /**
+         * @return the primitive a value unboxes to, or REFERENCE if it isn't a wrapper
+         */
+        static Slot ofValue(Object value) {
+            if (value instanceof Integer) {
+                return INT;
+            } else if (value instanceof Long) {
+                return LONG;
+            } else if (value instanceof Double) {
+                return DOUBLE;
+            } else if (value instanceof Boolean) {
+                return BOOLEAN;
+            } else if (value instanceof Float) {
+                return FLOAT;
+            } else if (value instanceof Short) {
+                return SHORT;
+            } else if (value instanceof Byte) {
+                return BYTE;
+            } else if (value instanceof Character) {
+                return CHAR;
+            }
+            return REFERENCE;
+        }
+
+        boolean widensTo(Slot target) {
+            return this == target || switch (this) {
+                case BYTE -> target.ordinal() >= SHORT.ordinal();
+                case CHAR, SHORT -> target.ordinal() >= INT.ordinal();
+                case INT, LONG, FLOAT -> target.ordinal() > ordinal();
+                default -> false;
+            };
+        }
+    }
+
+    static final class FieldBinding {
+        final String name;
+        final Class<?> type;
+        final Kind kind;
+        final boolean isStatic;
+        private final Field field;
+        private final Slot slot;
+        /**
+         * (Object) -> the field's type if it's a primitive, or Object; null if reflection has to be used
+         */
+        private final MethodHandle getter;
+        /**
+         * (Object, the field's type if it's a primitive, or Object) -> void; null if reflection has to be used
+         */
+        private final MethodHandle setter;
+
+        private FieldBinding(Field field) {
+            this.field = field;
+            this.name = field.getName();
+            this.type = field.getType();
+            this.kind = type.isAssignableFrom(List.class) ? Kind.LIST : Kind.VALUE;
+            this.isStatic = Modifier.isStatic(field.getModifiers());
+            this.slot = Slot.of(type);
+            try {
+                field.setAccessible(true);
+            } catch (RuntimeException ignored) {
+                // inaccessible fields report ILLEGAL_ACCESS when they're used
+            }
+            this.getter = getterHandle(field, isStatic, slot);
+            this.setter = setterHandle(field, isStatic, slot);
+        }
+
+        Object get(Object instance) throws IllegalAccessException {
+            if (getter == null || !isStatic && !field.getDeclaringClass().isInstance(instance)) {
+                return field.get(instance);
+            }
+            try {
+                return switch (slot) {
+                    case REFERENCE -> (Object) getter.invokeExact(instance);
+                    case BOOLEAN -> (boolean) getter.invokeExact(instance);
+                    case CHAR -> (char) getter.invokeExact(instance);
+                    case BYTE -> (byte) getter.invokeExact(instance);
+                    case SHORT -> (short) getter.invokeExact(instance);
+                    case INT -> (int) getter.invokeExact(instance);
+                    case LONG -> (long) getter.invokeExact(instance);
+                    case FLOAT -> (float) getter.invokeExact(instance);
+                    case DOUBLE -> (double) getter.invokeExact(instance);
+                };
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+
+        void set(Object instance, Object value) throws IllegalAccessException {
+            if (value instanceof LazyNumber) {
+                value = ((LazyNumber) value).value();
+            }
+            if (setter == null || !accepts(instance, value)) {
+                // reflection reports why the value can't be set
+                field.set(instance, value);
+                return;
+            }
+            try {
+                switch (slot) {
+                    case REFERENCE -> setter.invokeExact(instance, value);
+                    case BOOLEAN -> setter.invokeExact(instance, (boolean) (Boolean) value);
+                    case CHAR -> setter.invokeExact(instance, (char) (Character) value);
+                    case BYTE -> setter.invokeExact(instance, (byte) (Byte) value);
+                    case SHORT -> setter.invokeExact(instance, ((Number) value).shortValue());
+                    case INT -> setter.invokeExact(instance, value instanceof Character c ? (int) c : ((Number) value).intValue());
+                    case LONG -> setter.invokeExact(instance, value instanceof Character c ? (long) c : ((Number) value).longValue());
+                    case FLOAT -> setter.invokeExact(instance, value instanceof Character c ? (float) c : ((Number) value).floatValue());
+                    case DOUBLE -> setter.invokeExact(instance, value instanceof Character c ? (double) c : ((Number) value).doubleValue());
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+
+        /**
+         * @return whether the setter can take the value, widening it the way {@link Field#set} would
+         */
+        private boolean accepts(Object instance, Object value) {
+            if (!isStatic && !field.getDeclaringClass().isInstance(instance)) {
+                return false;
+            }
+            if (slot == Slot.REFERENCE) {
+                return value == null || type.isInstance(value);
+            }
+            return value != null && Slot.ofValue(value).widensTo(slot);
+        }
+
+        private static MethodHandle getterHandle(Field field, boolean isStatic, Slot slot) {
+            try {
+                MethodHandle handle = LOOKUP.unreflectGetter(field);
+                if (isStatic) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return handle.asType(MethodType.methodType(slot.type, Object.class));
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        private static MethodHandle setterHandle(Field field, boolean isStatic, Slot slot) {
+            try {
+                MethodHandle handle = LOOKUP.unreflectSetter(field);
+                if (isStatic) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return handle.asType(MethodType.methodType(void.class, Object.class, slot.type));
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package xyz.victorolaitan.easyjson;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import org.json.simple.LazyNumber;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class DatabaseHelper {
 
@@ -12,33 +18,98 @@ public class DatabaseHelper {
     }
 
     private static <T> T deserializeToClass(Class<T> aClass, JSONElement jsonElement) throws EasyJSONException {
-        T instance;
-        try {
-            instance = aClass.getDeclaredConstructor().newInstance();
-        } catch (InstantiationException | NoSuchMethodException | InvocationTargetException e) {
-            throw new EasyJSONException(EasyJSONException.INSTANTIATION_ERROR, e);
-        } catch (IllegalAccessException e) {
-            throw new EasyJSONException(EasyJSONException.ILLEGAL_ACCESS, e);
-        }
+        T instance = aClass.cast(ClassBinding.of(aClass).newInstance());
         deserializeToInstance(instance, jsonElement);
         return instance;
     }
 
+    /**
+     * Parses a JSON object straight into a new instance of a class, without building an EasyJSON structure.
+     * Fields are bound the same way as {@link #deserializeToClass(Class, EasyJSON)}.
+     *
+     * @param in     JSON text to read (it isn't closed)
+     * @param aClass class to bind to
+     * @return the bound instance
+     * @throws EasyJSONException if the text isn't valid JSON or can't be bound to the class
+     */
+    public static <T> T readValue(Reader in, Class<T> aClass) throws EasyJSONException {
+        BindingHandler<T> handler = new BindingHandler<>(aClass, null);
+        parse(in, handler);
+        return handler.getResult();
+    }
+
+    /**
+     * @param in UTF-8 encoded JSON text to read (it isn't closed)
+     * @see #readValue(Reader, Class)
+     */
+    public static <T> T readValue(InputStream in, Class<T> aClass) throws EasyJSONException {
+        BindingHandler<T> handler = new BindingHandler<>(aClass, null);
+        parse(in, handler);
+        return handler.getResult();
+    }
+
+    /**
+     * Parses a JSON array of objects, binding each one to a new instance of a class and passing it to a consumer
+     * as soon as it's read. Only one record is held in memory at a time.
+     *
+     * @param in       JSON text to read (it isn't closed)
+     * @param aClass   class to bind each record to
+     * @param consumer receives the records in document order
+     * @throws EasyJSONException if the text isn't valid JSON or a record can't be bound to the class
+     */
+    public static <T> void readValues(Reader in, Class<T> aClass, Consumer<? super T> consumer) throws EasyJSONException {
+        parse(in, new BindingHandler<>(aClass, consumer));
+    }
+
+    /**
+     * @param in UTF-8 encoded JSON text to read (it isn't closed)
+     * @see #readValues(Reader, Class, Consumer)
+     */
+    public static <T> void readValues(InputStream in, Class<T> aClass, Consumer<? super T> consumer) throws EasyJSONException {
+        parse(in, new BindingHandler<>(aClass, consumer));
+    }
+
+    private static void parse(Reader in, BindingHandler<?> handler) throws EasyJSONException {
+        JSONParser parser = JSONParser.acquire();
+        try {
+            parser.parse(in, handler);
+        } catch (ParseException e) {
+            throw EasyJSONException.fromParseException(e);
+        } catch (IOException e) {
+            throw new EasyJSONException(EasyJSONException.LOAD_ERROR, e);
+        } finally {
+            JSONParser.release(parser);
+        }
+    }
+
+    private static void parse(InputStream in, BindingHandler<?> handler) throws EasyJSONException {
+        JSONParser parser = JSONParser.acquire();
+        try {
+            parser.parse(in, handler);
+        } catch (ParseException e) {
+            throw EasyJSONException.fromParseException(e);
+        } catch (IOException e) {
+            throw new EasyJSONException(EasyJSONException.LOAD_ERROR, e);
+        } finally {
+            JSONParser.release(parser);
+        }
+    }
+
     public static <T> void deserializeToInstance(T instance, EasyJSON jsonStructure) throws EasyJSONException {
         deserializeToInstance(instance, jsonStructure.getRootNode());
     }
 
     private static <T> void deserializeToInstance(T instance, JSONElement jsonElement) throws EasyJSONException {
+        ClassBinding binding = ClassBinding.of(instance.getClass());
         for (JSONElement childElement : jsonElement) {
+            ClassBinding.FieldBinding field = binding.field(childElement.getKey());
             try {
-                Field field = instance.getClass().getDeclaredField(childElement.getKey());
-                field.setAccessible(true);
                 switch (childElement.getType()) {
                     case PRIMITIVE:
                         field.set(instance, childElement.getValue());
                         break;
                     case ARRAY:
-                        if (field.getType().isAssignableFrom(List.class)) {
+                        if (field.kind == ClassBinding.Kind.LIST) {
                             field.set(
                                     instance,
                                     extractArrayElements(childElement)
@@ -46,25 +117,22 @@ public class DatabaseHelper {
                         }
                         break;
                     case STRUCTURE:
-                        field.set(instance, deserializeToClass(field.getType(), childElement));
+                        field.set(instance, deserializeToClass(field.type, childElement));
                         break;
                     case ROOT:
                         break;
                 }
             } catch (IllegalAccessException e) {
                 throw new EasyJSONException(EasyJSONException.ILLEGAL_ACCESS, e);
-            } catch (NoSuchFieldException e) {
-                throw new EasyJSONException(EasyJSONException.FIELD_NOT_FOUND, e);
-            } catch (InstantiationException e) {
-                throw new EasyJSONException(EasyJSONException.INSTANTIATION_ERROR, e);
             }
         }
     }
 
-    private static List<?> extractArrayElements(JSONElement arrayElement) throws IllegalAccessException, InstantiationException {
+    private static List<?> extractArrayElements(JSONElement arrayElement) {
         List<Object> values = new ArrayList<>();
         for (JSONElement e : arrayElement) {
-            values.add(e.getValue());
+            Object value = e.getValue();
+            values.add(value instanceof LazyNumber ? ((LazyNumber) value).value() : value);
         }
         return values;
     }
@@ -86,23 +154,26 @@ public class DatabaseHelper {
     }
 
     private static <T> JSONElement serialize(T instance, Class<? extends T> tClass, JSONElement sourceElement, Object... excludeFields) throws EasyJSONException {
-        for (Field field : tClass.getDeclaredFields()) {
+        for (ClassBinding.FieldBinding field : ClassBinding.of(tClass).fields()) {
+            if (instance == null && !field.isStatic) {
+                continue; // all instance fields in a static context are excluded
+            }
             try {
-                if (!excludeContains(field, instance, excludeFields)) {
-                    Object fieldValue = field.get(instance);
+                Object fieldValue = field.get(instance);
+                if (!excludeContains(fieldValue, excludeFields)) {
                     Class<?> enclosingClass = fieldValue.getClass().getEnclosingClass();
                     if (enclosingClass != null && enclosingClass.equals(tClass)) {
                         // typeof fieldValue == some subclass of tClass
                         sourceElement.putStructure(
-                                field.getName(),
+                                field.name,
                                 serialize(fieldValue, fieldValue.getClass(), EasyJSON.create().getRootNode(), excludeFields)
                         );
                     } else if (fieldValue instanceof List) {
                         // typeof fieldValue == List<?>
-                        sourceElement.putArray(field.getName(), ((List<?>) fieldValue).toArray());
+                        sourceElement.putArray(field.name, ((List<?>) fieldValue).toArray());
                     } else {
                         // typeof fieldValue == some class implementing .toString()
-                        sourceElement.putPrimitive(field.getName(), fieldValue);
+                        sourceElement.putPrimitive(field.name, fieldValue);
                     }
                 }
             } catch (IllegalAccessException e) {
@@ -112,13 +183,7 @@ public class DatabaseHelper {
         return sourceElement;
     }
 
-    private static boolean excludeContains(Field field, Object instance, Object... excludeFields) throws IllegalAccessException {
-        Object fieldValue;
-        try {
-            fieldValue = field.get(instance);
-        } catch (NullPointerException ignored) {
-            return true; // all instance fields in a static context are excluded
-        }
+    private static boolean excludeContains(Object fieldValue, Object... excludeFields) {
         for (Object e : excludeFields) {
             if (fieldValue == e) {
                 return true;
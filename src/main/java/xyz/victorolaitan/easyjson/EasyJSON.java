@@ -4,10 +4,22 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 
 /**
  * EasyJSON is a class created to help simplify the JSON process.
@@ -76,6 +88,7 @@ public class EasyJSON {
 
     /**
      * Reads the specified file and attempts to parse it into an EasyJSON structure.
+     * The file is read as UTF-8 encoded bytes.
      * <p><i>Note: the file does not need to have a .json extension</i></p>
      *
      * @param file the file containing the json data
@@ -83,7 +96,19 @@ public class EasyJSON {
      * @throws EasyJSONException if the file's JSON structure is incompatible with EasyJSON.
      */
     public static EasyJSON open(File file) throws EasyJSONException {
-        return new EasyJSON(file.getAbsolutePath());
+        return new EasyJSON(file.getAbsolutePath(), OpenOptions.defaults());
+    }
+
+    /**
+     * Reads the specified file with the given options and attempts to parse it into an EasyJSON structure.
+     *
+     * @param file    the file containing the json data
+     * @param options how the file should be read
+     * @return The parsed EasyJSON structure
+     * @throws EasyJSONException if the file's JSON structure is incompatible with EasyJSON.
+     */
+    public static EasyJSON open(File file, OpenOptions options) throws EasyJSONException {
+        return new EasyJSON(file.getAbsolutePath(), options);
     }
 
     /**
@@ -94,14 +119,35 @@ public class EasyJSON {
      * @throws EasyJSONException if the file's JSON structure is incompatible with EasyJSON.
      */
     public static EasyJSON open(String filePath) throws EasyJSONException {
-        return new EasyJSON(filePath);
+        return new EasyJSON(filePath, OpenOptions.defaults());
+    }
+
+    /**
+     * Reads the specified file with the given options and attempts to parse it into an EasyJSON structure.
+     *
+     * @param filePath The path of the file relative to the Java instance (or full path ie. c: .... )
+     * @param options  how the file should be read
+     * @return The parsed EasyJSON structure
+     * @throws EasyJSONException if the file's JSON structure is incompatible with EasyJSON.
+     */
+    public static EasyJSON open(String filePath, OpenOptions options) throws EasyJSONException {
+        return new EasyJSON(filePath, options);
     }
 
+    /**
+     * The largest region of a file that is mapped as one buffer.
+     */
+    private static final long MAP_CHUNK_SIZE = 1L << 30;
+
     private final JSONElement rootNode;
     private String filePath;
 
     /**
-     * @return the JSONElement holding the entire JSON structure
+     * @return the JSONElement holding the entire JSON structure.
+     * This is a {@link JSONElementType#ROOT ROOT} node, unless the structure was opened from a document
+     * whose root is an array or a scalar value, in which case it's an {@link JSONElementType#ARRAY ARRAY}
+     * or {@link JSONElementType#PRIMITIVE PRIMITIVE} node without a parent.
+     * A primitive root can't hold other elements, so the put methods throw an {@link UnsupportedOperationException}.
      */
     public JSONElement getRootNode() {
         return rootNode;
@@ -116,72 +162,89 @@ public class EasyJSON {
     }
 
     private EasyJSON() {
-        rootNode = new JSONElementImpl(this, null, JSONElementType.ROOT, null, null);
+        rootNode = JSONElementImpl.root(this, JSONElementType.ROOT, null);
     }
 
-    private EasyJSON(String filePath) throws EasyJSONException {
-        rootNode = new JSONElementImpl(this, null, JSONElementType.ROOT, null, null);
+    private EasyJSON(String filePath, OpenOptions options) throws EasyJSONException {
+        if (filePath.equals("")) {
+            throw new UnexpectedTokenException("The file path specified is invalid.");
+        }
         try {
-            if (!filePath.equals("")) {
-                JSONObject obj;
-                obj = (JSONObject) (new JSONParser()).parse(new FileReader(filePath));
-                for (Object key : obj.keySet()) {
-                    if (!(key instanceof String)) {
-                        throw new UnexpectedTokenException("EasyJSON can't handle non-string keys.");
-                    }
-                    Object value = obj.get(key);
-                    JSONElementType type = JSONElementType.PRIMITIVE;
-                    if (value instanceof JSONArray) {
-                        type = JSONElementType.ARRAY;
-                    } else if (value instanceof JSONObject) {
-                        type = JSONElementType.STRUCTURE;
-                    }
-                    JSONElement parentElement = new JSONElementImpl(this, null, type, key.toString(), value);
-                    iterateElement(parentElement);
-                    rootNode.getChildren().add(parentElement);
-                }
-                this.filePath = filePath;
+            if (options.isReadOnly() || options.isLazy()) {
+                rootNode = openTape(filePath, options);
             } else {
-                throw new UnexpectedTokenException("The file path specified is invalid.");
+                rootNode = build(filePath, options);
             }
         } catch (org.json.simple.parser.ParseException e) {
-            throw new EasyJSONException(EasyJSONException.FILE_NOT_JSON, e);
+            throw EasyJSONException.fromParseException(e);
         } catch (IOException e) {
             throw new EasyJSONException(EasyJSONException.LOAD_ERROR, e);
         }
+        this.filePath = filePath;
     }
 
-    private void iterateElement(JSONElement targetItem) throws UnexpectedTokenException {
-        if (targetItem.getType() == JSONElementType.ARRAY) {
-            JSONArray array = (JSONArray) targetItem.getValue();
-            for (Object arrayItem : array) {
-                JSONElementType type = JSONElementType.PRIMITIVE;
-                if (arrayItem instanceof JSONArray) {
-                    type = JSONElementType.ARRAY;
-                } else if (arrayItem instanceof JSONObject) {
-                    type = JSONElementType.STRUCTURE;
+    private JSONElement build(String filePath, OpenOptions options) throws IOException, org.json.simple.parser.ParseException {
+        JSONElementBuilder builder = new JSONElementBuilder(this);
+        JSONParser parser = JSONParser.acquire();
+        parser.setNumberMode(options.numberMode());
+        parser.setMaxDepth(options.getMaxDepth());
+        parser.setProjection(options.projection());
+        try {
+            if (options.isMemoryMapped()) {
+                parser.parse(map(filePath), builder);
+            } else {
+                try (InputStream in = new FileInputStream(filePath)) {
+                    parser.parse(in, builder);
                 }
-                JSONElement newItem = new JSONElementImpl(this, targetItem, type, "", arrayItem);
-                iterateElement(newItem);
-                targetItem.getChildren().add(newItem);
             }
-        } else if (targetItem.getType() == JSONElementType.STRUCTURE) {
-            JSONObject structure = (JSONObject) targetItem.getValue();
-            for (Object key : structure.keySet()) {
-                if (!(key instanceof String)) {
-                    throw new UnexpectedTokenException("EasyJSON can't handle non-string keys.");
-                }
-                Object value = structure.get(key);
-                JSONElementType type = JSONElementType.PRIMITIVE;
-                if (value instanceof JSONArray) {
-                    type = JSONElementType.ARRAY;
-                } else if (value instanceof JSONObject) {
-                    type = JSONElementType.STRUCTURE;
-                }
-                JSONElement newItem = new JSONElementImpl(this, targetItem, type, key.toString(), value);
-                iterateElement(newItem);
-                targetItem.getChildren().add(newItem);
+        } finally {
+            JSONParser.release(parser);
+        }
+        return builder.getRoot();
+    }
+
+    private JSONElement openTape(String filePath, OpenOptions options) throws IOException, org.json.simple.parser.ParseException {
+        JSONTape tape = JSONTape.parse(readWhole(filePath, options.isMemoryMapped()), options.numberMode(), options.getMaxDepth());
+        if (options.isReadOnly()) {
+            return TapeElement.root(this, tape);
+        }
+        return JSONElementImpl.fromTape(this, tape);
+    }
+
+    /**
+     * Reads (or maps) the whole file into a single buffer, which limits it to 2GB
+     */
+    private static ByteBuffer readWhole(String filePath, boolean memoryMapped) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Read-only documents can't be larger than 2GB.");
+            }
+            if (memoryMapped) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                // keep reading until the buffer is full
+            }
+            return bytes.flip();
+        }
+    }
+
+    /**
+     * Maps the whole file read-only, in regions of at most {@link #MAP_CHUNK_SIZE} bytes
+     * since a single buffer can't address more than 2GB.
+     * The mappings stay valid after the channel is closed.
+     */
+    private static ByteBuffer[] map(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((size + MAP_CHUNK_SIZE - 1) / MAP_CHUNK_SIZE)];
+            for (int i = 0; i < chunks.length; i++) {
+                long position = i * MAP_CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK_SIZE, size - position));
             }
+            return chunks;
         }
     }
 
@@ -269,6 +332,20 @@ public class EasyJSON {
         return rootNode.valueOf(location);
     }
 
+    /**
+     * @see JSONElement#search(JSONPath)
+     */
+    public JSONElement search(JSONPath path) {
+        return rootNode.search(path);
+    }
+
+    /**
+     * @see JSONElement#valueOf(JSONPath)
+     */
+    public Object valueOf(JSONPath path) {
+        return rootNode.valueOf(path);
+    }
+
     /**
      * @see JSONElement#putAll(EasyJSON)
      */
@@ -284,14 +361,31 @@ public class EasyJSON {
     }
 
     /**
-     * Exports this EasyJSON structure to a SimpleJSON {@link JSONObject JSONObject}
+     * Exports this EasyJSON structure to a SimpleJSON {@link JSONObject JSONObject}.
+     * Keys keep the order of the exported nodes, and primitives without a value are exported as nulls.
      * @return SimpleJSON object
      * @throws EasyJSONException if there's an error during export
      */
     public JSONObject exportToJSONObject() throws EasyJSONException {
+        if (rootNode.getType() != JSONElementType.ROOT) {
+            throw new EasyJSONException(EasyJSONException.SAVE_ERROR, rootNode);
+        }
         return deepSave(new JSONObject(), rootNode);
     }
 
+    /**
+     * Exports this EasyJSON structure to a SimpleJSON value, whatever the type of its root
+     * @return a SimpleJSON {@link JSONObject JSONObject} or {@link JSONArray JSONArray}, or the root's primitive value
+     * @throws EasyJSONException if there's an error during export
+     */
+    public Object exportToJSONValue() throws EasyJSONException {
+        return switch (rootNode.getType()) {
+            case ROOT, STRUCTURE -> deepSave(new JSONObject(), rootNode);
+            case ARRAY -> deepSave(new JSONArray(), rootNode);
+            case PRIMITIVE -> rootNode.getValue();
+        };
+    }
+
     private void checkExists(String path) throws EasyJSONException {
         File file = new File(path);
         if (!file.exists()) {
@@ -305,6 +399,20 @@ public class EasyJSON {
         }
     }
 
+    /**
+     * @see JSONElement#writeTo(Writer)
+     */
+    public void writeTo(Writer out) throws IOException {
+        rootNode.writeTo(out);
+    }
+
+    /**
+     * @see JSONElement#writeTo(OutputStream)
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        rootNode.writeTo(out);
+    }
+
     @Override
     public String toString() {
         return rootNode.toString();
@@ -339,43 +447,63 @@ public class EasyJSON {
      */
     public void save(String absoluteSavePath) throws EasyJSONException {
         checkExists(absoluteSavePath);
-        try (FileWriter file = new FileWriter(absoluteSavePath)) {
-            file.write(this.toString());
-            file.flush();
+        try (Writer file = new BufferedWriter(new FileWriter(absoluteSavePath, StandardCharsets.UTF_8))) {
+            writeTo(file);
         } catch (IOException e) {
             throw new EasyJSONException(EasyJSONException.SAVE_ERROR, e);
         }
     }
 
+    /**
+     * Copies the children of currentElement, and all of their descendants, into currentJSONRef.
+     * The tree is walked with an explicit stack, so its depth isn't limited by the thread's stack.
+     */
     <T> T deepSave(T currentJSONRef, JSONElement currentElement) throws EasyJSONException {
-        for (int i = 0; i < currentElement.getChildren().size(); i++) {
-            JSONElement child = currentElement.getChildren().get(i);
+        Deque<ExportFrame> stack = new ArrayDeque<>();
+        stack.push(new ExportFrame(currentJSONRef, currentElement));
+        while (!stack.isEmpty()) {
+            ExportFrame frame = stack.peek();
+            List<JSONElement> children = frame.element.getChildren();
+            if (frame.index >= children.size()) {
+                stack.pop();
+                continue;
+            }
+            JSONElement child = children.get(frame.index++);
             Object objectToAdd;
             switch (child.getType()) {
                 case ARRAY:
-                    objectToAdd = deepSave(new JSONArray(), child);
+                    objectToAdd = new JSONArray();
+                    stack.push(new ExportFrame(objectToAdd, child));
                     break;
                 case STRUCTURE:
                 case ROOT:
-                    objectToAdd = deepSave(new JSONObject(), child);
+                    objectToAdd = new JSONObject();
+                    stack.push(new ExportFrame(objectToAdd, child));
                     break;
                 default:
-                    objectToAdd = child.getValue();
+                    objectToAdd = child.getValue(); // a primitive without a value is a JSON null
             }
-            if (objectToAdd != null) {
-                if (currentJSONRef instanceof JSONObject) {
-                    JSONObject object = (JSONObject) currentJSONRef;
-                    object.put(child.getKey(), objectToAdd);
-                } else if (currentJSONRef instanceof JSONArray) {
-                    JSONArray array = (JSONArray) currentJSONRef;
-                    array.add(objectToAdd);
-                } else {
-                    throw new EasyJSONException(EasyJSONException.SAVE_ERROR, currentElement);
-                }
+            if (frame.jsonRef instanceof JSONObject) {
+                JSONObject object = (JSONObject) frame.jsonRef;
+                object.put(child.getKey(), objectToAdd);
+            } else if (frame.jsonRef instanceof JSONArray) {
+                JSONArray array = (JSONArray) frame.jsonRef;
+                array.add(objectToAdd);
             } else {
-                throw new EasyJSONException(EasyJSONException.SAVE_ERROR, currentElement);
+                throw new EasyJSONException(EasyJSONException.SAVE_ERROR, frame.element);
             }
         }
         return currentJSONRef;
     }
+
+    private static final class ExportFrame {
+        final Object jsonRef;
+        final JSONElement element;
+        int index;
+
+        ExportFrame(Object jsonRef, JSONElement element) {
+            this.jsonRef = jsonRef;
+            this.element = element;
+        }
+    }
 }
\ No newline at end of file
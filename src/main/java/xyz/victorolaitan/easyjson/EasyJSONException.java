@@ -1,5 +1,7 @@
 package xyz.victorolaitan.easyjson;
 
+import org.json.simple.parser.ParseException;
+
 public class EasyJSONException extends Exception {
 
     static final int SAVE_ERROR = 0;
@@ -22,6 +24,25 @@ public class EasyJSONException extends Exception {
         super(translateError(error) + formatErrorSource(source));
     }
 
+    /**
+     * Wraps an exception so it can be thrown from a parser content handler
+     *
+     * @see #fromParseException(ParseException)
+     */
+    static ParseException tunnel(EasyJSONException e) {
+        return new ParseException(ParseException.ERROR_UNEXPECTED_EXCEPTION, e);
+    }
+
+    /**
+     * @return the exception tunnelled through the parser, or a FILE_NOT_JSON error for genuine parse errors
+     */
+    static EasyJSONException fromParseException(ParseException e) {
+        if (e.getUnexpectedObject() instanceof EasyJSONException cause) {
+            return cause;
+        }
+        return new EasyJSONException(FILE_NOT_JSON, e);
+    }
+
     private static String translateError(int error) {
         switch (error) {
             case SAVE_ERROR:
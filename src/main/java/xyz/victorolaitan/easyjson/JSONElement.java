@@ -1,5 +1,11 @@
 package xyz.victorolaitan.easyjson;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.List;
 
@@ -147,6 +153,16 @@ public interface JSONElement extends Iterable<JSONElement> {
      */
     JSONElement search(String... location);
 
+    /**
+     * Finds a node at a compiled location, reusing the node the path last found from here if nothing has moved since
+     *
+     * @param path compiled search path for the node
+     * @return node found or null
+     */
+    default JSONElement search(JSONPath path) {
+        return path.search(this);
+    }
+
     JSONElement deepSearch(JSONElement element, String[] location, int locPosition);
 
     /**
@@ -157,6 +173,38 @@ public interface JSONElement extends Iterable<JSONElement> {
      */
     Object valueOf(String... location);
 
+    /**
+     * Gets and returns the value of a node at a compiled location
+     *
+     * @param path compiled search path for the node
+     * @see #search(JSONPath)
+     */
+    default Object valueOf(JSONPath path) {
+        return path.valueOf(this);
+    }
+
+    /**
+     * Writes this node as JSON text, streaming it straight from the node tree
+     *
+     * @param out writer to write to (it isn't flushed or closed)
+     * @throws IOException if the writer fails
+     */
+    default void writeTo(Writer out) throws IOException {
+        JSONElementWriter.write(this, out);
+    }
+
+    /**
+     * Writes this node as UTF-8 encoded JSON text, streaming it straight from the node tree
+     *
+     * @param out stream to write to (it is flushed but not closed)
+     * @throws IOException if the stream fails
+     */
+    default void writeTo(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeTo(writer);
+        writer.flush();
+    }
+
     @Override
     Iterator<JSONElement> iterator();
 
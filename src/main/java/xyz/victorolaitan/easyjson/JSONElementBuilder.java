@@ -0,0 +1,97 @@
+package xyz.victorolaitan.easyjson;
+
+import org.json.simple.parser.ContentHandler;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Builds the EasyJSON node tree straight from the parser's token stream,
+ * so a document is never held as a SimpleJSON object graph in between.
+ * <p>
+ * Object documents get a {@link JSONElementType#ROOT ROOT} node; array and scalar documents
+ * get a parentless {@link JSONElementType#ARRAY ARRAY} or {@link JSONElementType#PRIMITIVE PRIMITIVE} root.
+ * When an object repeats a key, the last value wins and keeps the place of the first.
+ */
+class JSONElementBuilder implements ContentHandler {
+    private final EasyJSON easyJSONStructure;
+    private final Deque<JSONElement> stack = new ArrayDeque<>();
+    private JSONElement rootNode;
+    private String pendingKey;
+
+    JSONElementBuilder(EasyJSON easyJSONStructure) {
+        this.easyJSONStructure = easyJSONStructure;
+    }
+
+    /**
+     * @return the root of the parsed document
+     */
+    JSONElement getRoot() {
+        return rootNode;
+    }
+
+    @Override
+    public void startJSON() {
+        stack.clear();
+        rootNode = null;
+        pendingKey = null;
+    }
+
+    @Override
+    public void endJSON() {
+    }
+
+    @Override
+    public boolean startObject() {
+        stack.push(addChild(stack.isEmpty() ? JSONElementType.ROOT : JSONElementType.STRUCTURE, null));
+        return true;
+    }
+
+    @Override
+    public boolean endObject() {
+        stack.pop();
+        return true;
+    }
+
+    @Override
+    public boolean startObjectEntry(String key) {
+        pendingKey = key;
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry() {
+        return true;
+    }
+
+    @Override
+    public boolean startArray() {
+        stack.push(addChild(JSONElementType.ARRAY, null));
+        return true;
+    }
+
+    @Override
+    public boolean endArray() {
+        stack.pop();
+        return true;
+    }
+
+    @Override
+    public boolean primitive(Object value) {
+        addChild(JSONElementType.PRIMITIVE, value);
+        return true;
+    }
+
+    private JSONElement addChild(JSONElementType type, Object value) {
+        JSONElement parent = stack.peek();
+        if (parent == null) {
+            rootNode = JSONElementImpl.root(easyJSONStructure, type, value);
+            return rootNode;
+        }
+        String key = parent.getType() == JSONElementType.ARRAY ? "" : pendingKey;
+        pendingKey = null;
+        JSONElementImpl element = new JSONElementImpl(parent, type, key, value);
+        ((JSONElementImpl) parent).addParsed(element);
+        return element;
+    }
+}
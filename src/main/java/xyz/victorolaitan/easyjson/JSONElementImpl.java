@@ -1,30 +1,101 @@
 package xyz.victorolaitan.easyjson;
 
-import org.json.simple.JSONObject;
-
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A node of an EasyJSON document.
+ * <p>
+ * Nodes only hold their parent, type, children, key and value. Leaves have no child list, and only the root
+ * (a {@link Root}) knows the structure it belongs to; every other node finds it by walking up to its root,
+ * so a node that has been removed from its tree belongs to no structure.
+ */
 public class JSONElementImpl implements JSONElement {
-    private EasyJSON easyJSONStructure;
+    /**
+     * Structures with at least this many children keep an index of their children by key
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
     private JSONElement parent;
     private JSONElementType type;
-    private List<JSONElement> children = new ArrayList<>();
+    /**
+     * Created on the first child, so leaves don't carry a list
+     */
+    private ChildList children;
     private String key;
     private Object value;
 
-    JSONElementImpl(EasyJSON easyJSONStructure, JSONElement parent, JSONElementType type, String key, Object value) {
-        this.easyJSONStructure = easyJSONStructure;
+    JSONElementImpl(JSONElement parent, JSONElementType type, String key, Object value) {
         this.parent = parent;
         this.type = type;
         this.key = key;
         this.value = value;
     }
 
+    /**
+     * @return the root node of a structure
+     */
+    static JSONElementImpl root(EasyJSON easyJSONStructure, JSONElementType type, Object value) {
+        return new Root(easyJSONStructure, type, value);
+    }
+
+    /**
+     * Creates the root node of a document that was lazily opened into a tape
+     */
+    static JSONElementImpl fromTape(EasyJSON easyJSONStructure, JSONTape tape) {
+        JSONElementImpl root = root(easyJSONStructure, typeOf(tape, 0, true), null);
+        root.loadFromTape(tape, 0);
+        return root;
+    }
+
+    /**
+     * Creates the node for a tape entry. Scalars get their value straight away,
+     * while the children of objects and arrays are only created when they're first needed.
+     */
+    private static JSONElementImpl fromTape(JSONElementImpl parent, JSONTape tape, int entry, String key) {
+        JSONElementImpl element = new JSONElementImpl(parent, typeOf(tape, entry, false), key, null);
+        element.loadFromTape(tape, entry);
+        return element;
+    }
+
+    private static JSONElementType typeOf(JSONTape tape, int entry, boolean root) {
+        return switch (tape.kind(entry)) {
+            case JSONTape.OBJECT -> root ? JSONElementType.ROOT : JSONElementType.STRUCTURE;
+            case JSONTape.ARRAY -> JSONElementType.ARRAY;
+            default -> JSONElementType.PRIMITIVE;
+        };
+    }
+
+    private void loadFromTape(JSONTape tape, int entry) {
+        if (tape.isContainer(entry)) {
+            if (tape.count(entry) > 0) {
+                children = new ChildList(this, tape, entry);
+            }
+        } else {
+            value = tape.value(entry);
+        }
+    }
+
     @Override
     public EasyJSON getEasyJSONStructure() {
-        return easyJSONStructure;
+        JSONElement node = this;
+        while (node instanceof JSONElementImpl nodeImpl) {
+            if (nodeImpl.parent == null) {
+                return nodeImpl instanceof Root root ? root.easyJSONStructure : null;
+            }
+            node = nodeImpl.parent;
+        }
+        return node.getEasyJSONStructure();
     }
 
     @Override
@@ -32,10 +103,15 @@ public class JSONElementImpl implements JSONElement {
         return parent;
     }
 
+    /**
+     * Only a {@link Root} keeps the structure it's given; any other node that's given no parent
+     * belongs to no structure.
+     */
     @Override
     public void mutateAncestry(EasyJSON easyJSONStructure, JSONElement parent) {
-        this.easyJSONStructure = easyJSONStructure;
+        changed();
         this.parent = parent;
+        changed();
     }
 
     @Override
@@ -45,11 +121,19 @@ public class JSONElementImpl implements JSONElement {
 
     @Override
     public void setType(SafeJSONElementType type) {
+        changed();
         this.type = type.getRealType();
+        if (children != null) {
+            children.reindex();
+        }
     }
 
     @Override
     public List<JSONElement> getChildren() {
+        materialize();
+        if (children == null) {
+            children = new ChildList(this);
+        }
         return children;
     }
 
@@ -60,7 +144,12 @@ public class JSONElementImpl implements JSONElement {
 
     @Override
     public void setKey(String key) {
+        String oldKey = this.key;
         this.key = key;
+        changed();
+        if (parent instanceof JSONElementImpl parentImpl && parentImpl.children != null) {
+            parentImpl.children.childRekeyed(this, oldKey);
+        }
     }
 
     @Override
@@ -92,19 +181,21 @@ public class JSONElementImpl implements JSONElement {
 
     @Override
     public JSONElement putPrimitive(Object value) {
+        checkCanHoldElements();
         JSONElementImpl element;
         if (value instanceof JSONElementImpl) {
             element = (JSONElementImpl) value;
-            element.parent = this;
+            element.mutateAncestry(null, this);
         } else {
-            element = new JSONElementImpl(easyJSONStructure, this, JSONElementType.PRIMITIVE, null, value);
+            element = new JSONElementImpl(this, JSONElementType.PRIMITIVE, null, value);
         }
-        children.add(element);
+        getChildren().add(element);
         return element;
     }
 
     @Override
     public JSONElement putPrimitive(String key, Object value) {
+        checkCanHoldElements();
         JSONElement search = search(key);
         if (search == null) {
             JSONElementImpl element;
@@ -113,8 +204,8 @@ public class JSONElementImpl implements JSONElement {
                 element.key = key;
                 claimElement(element);
             } else {
-                element = new JSONElementImpl(easyJSONStructure, this, JSONElementType.PRIMITIVE, key, value);
-                children.add(element);
+                element = new JSONElementImpl(this, JSONElementType.PRIMITIVE, key, value);
+                getChildren().add(element);
             }
             return element;
         } else {
@@ -129,10 +220,11 @@ public class JSONElementImpl implements JSONElement {
 
     @Override
     public JSONElement putStructure(String key) {
+        checkCanHoldElements();
         JSONElement element = search(key);
         if (element == null) {
-            element = new JSONElementImpl(easyJSONStructure, this, JSONElementType.STRUCTURE, key, null);
-            children.add(element);
+            element = new JSONElementImpl(this, JSONElementType.STRUCTURE, key, null);
+            getChildren().add(element);
         } else {
             throw new RuntimeException("EasyJSON: An element already exists with that key!");
         }
@@ -146,6 +238,7 @@ public class JSONElementImpl implements JSONElement {
 
     @Override
     public JSONElement putStructure(String key, JSONElement structure) {
+        checkCanHoldElements();
         JSONElement searchResult = search(key);
         if (searchResult == null) {
             structure.setType(SafeJSONElementType.STRUCTURE);
@@ -159,9 +252,10 @@ public class JSONElementImpl implements JSONElement {
 
     @Override
     public JSONElement putArray(String key, Object... items) {
+        checkCanHoldElements();
         JSONElement search = search(key);
         if (search == null || search.getType() != JSONElementType.ARRAY) {
-            JSONElementImpl element = new JSONElementImpl(easyJSONStructure, this, JSONElementType.ARRAY, key, null);
+            JSONElementImpl element = new JSONElementImpl(this, JSONElementType.ARRAY, key, null);
             for (Object item : items) {
                 if (item instanceof JSONElementImpl itemElement) {
                     element.putElement(itemElement.getKey(), itemElement);
@@ -169,7 +263,7 @@ public class JSONElementImpl implements JSONElement {
                     element.putPrimitive(item);
                 }
             }
-            children.add(element);
+            getChildren().add(element);
             return element;
         } else {
             for (Object item : items) {
@@ -197,14 +291,29 @@ public class JSONElementImpl implements JSONElement {
 
     @Override
     public void claimElement(JSONElement jsonElement) {
-        jsonElement.mutateAncestry(easyJSONStructure, this);
-        children.add(jsonElement);
+        checkCanHoldElements();
+        jsonElement.mutateAncestry(getEasyJSONStructure(), this);
+        getChildren().add(jsonElement);
+    }
+
+    /**
+     * @throws UnsupportedOperationException if this is a primitive, whose children would never be written
+     */
+    private void checkCanHoldElements() {
+        if (type == JSONElementType.PRIMITIVE) {
+            throw new UnsupportedOperationException("EasyJSON: A primitive element can't hold other elements.");
+        }
     }
 
     @Override
     public JSONElement merge(JSONElement newElement) {
+        changed();
         type = newElement.getType();
-        children = newElement.getChildren();
+        List<JSONElement> newChildren = new ArrayList<>(newElement.getChildren());
+        children = null;
+        for (JSONElement child : newChildren) {
+            claimElement(child);
+        }
         value = newElement.getValue();
         return this;
     }
@@ -231,22 +340,31 @@ public class JSONElementImpl implements JSONElement {
 
     @Override
     public JSONElement deepSearch(JSONElement element, String[] location, int locPosition) {
-        List<JSONElement> children = element.getChildren();
-        for (int i = 0; locPosition < location.length && i < children.size(); i++) {
-            String currentLoc = location[locPosition];
-            JSONElement child = children.get(i);
-            boolean childIsAMatch;
-            if (element.getType() == JSONElementType.ARRAY) {
-                childIsAMatch = String.valueOf(i).equals(currentLoc);
-            } else {
-                childIsAMatch = child.getKey() != null && child.getKey().equals(location[locPosition]);
-            }
-            if (childIsAMatch) {
-                if (locPosition == location.length - 1) {
-                    return child;
-                } else {
-                    return deepSearch(child, location, locPosition + 1);
-                }
+        if (locPosition >= location.length) {
+            return null;
+        }
+        JSONElement match = element;
+        for (int i = locPosition; i < location.length && match != null; i++) {
+            match = childOf(match, location[i]);
+        }
+        return match;
+    }
+
+    static JSONElement childOf(JSONElement element, String key) {
+        if (element.getType() == JSONElementType.ARRAY) {
+            List<JSONElement> children = element.getChildren();
+            int i = parseIndex(key);
+            return i >= 0 && i < children.size() ? children.get(i) : null;
+        }
+        if (element instanceof JSONElementImpl elementImpl) {
+            return elementImpl.findChild(key);
+        }
+        if (element instanceof TapeElement) {
+            return element.search(key);
+        }
+        for (JSONElement child : element.getChildren()) {
+            if (child.getKey() != null && child.getKey().equals(key)) {
+                return child;
             }
         }
         return null;
@@ -260,18 +378,343 @@ public class JSONElementImpl implements JSONElement {
 
     @Override
     public Iterator<JSONElement> iterator() {
-        return children.iterator();
+        materialize();
+        return children == null ? Collections.emptyIterator() : children.iterator();
     }
 
     @Override
     public String toString() {
-        JSONObject obj = new JSONObject();
+        StringWriter out = new StringWriter();
         try {
-            obj = easyJSONStructure.deepSave(obj, this);
-        } catch (EasyJSONException e) {
-            e.printStackTrace();
-            return super.toString();
+            writeTo(out);
+        } catch (IOException e) {
+            // a StringWriter never throws
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Parses an array path segment, accepting exactly the strings produced by {@code String.valueOf(int)}
+     * for non-negative indices
+     *
+     * @return the index, or -1 if the segment isn't a valid index
+     */
+    static int parseIndex(String segment) {
+        int length = segment == null ? 0 : segment.length();
+        if (length == 0 || length > 10 || (length > 1 && segment.charAt(0) == '0')) {
+            return -1;
+        }
+        long index = 0;
+        for (int i = 0; i < length; i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index > Integer.MAX_VALUE ? -1 : (int) index;
+    }
+
+    /**
+     * @return the root at the top of a node's tree, or null if the tree's top node isn't a structure's root
+     */
+    static Root rootOf(JSONElementImpl node) {
+        JSONElement top = node;
+        while (top instanceof JSONElementImpl topImpl) {
+            if (topImpl.parent == null) {
+                return topImpl instanceof Root root ? root : null;
+            }
+            top = topImpl.parent;
+        }
+        return null;
+    }
+
+    /**
+     * Records a change to the shape of this node's tree with the tree's root
+     */
+    private void changed() {
+        Root root = rootOf(this);
+        if (root != null) {
+            root.revision++;
+        }
+    }
+
+    /**
+     * Adds a child read from a document. A child that repeats the key of an earlier one replaces it in place,
+     * so the last value of a duplicated key wins, as it did when documents were parsed into a map.
+     */
+    void addParsed(JSONElement child) {
+        if (children == null) {
+            children = new ChildList(this);
+        }
+        children.addParsed(child, type != JSONElementType.ARRAY);
+    }
+
+    /**
+     * Finds the first child with the given key, using the key index once this node is large enough
+     */
+    JSONElement findChild(String key) {
+        materialize();
+        return key == null || children == null ? null : children.find(key);
+    }
+
+    /**
+     * Creates the children of a lazily opened node, if they haven't been yet
+     */
+    private void materialize() {
+        ChildList children = this.children;
+        if (children != null) {
+            children.fill();
+        }
+    }
+
+    /**
+     * The root node of a structure, which is the only node that keeps the structure it belongs to.
+     * It also counts the changes made to the shape of its tree (children added, removed or rekeyed,
+     * or types changed), so compiled paths know when the nodes they resolved to may have moved.
+     * Reading a document into the tree doesn't count as a change.
+     */
+    static final class Root extends JSONElementImpl {
+        private EasyJSON easyJSONStructure;
+        private long revision;
+
+        Root(EasyJSON easyJSONStructure, JSONElementType type, Object value) {
+            super(null, type, null, value);
+            this.easyJSONStructure = easyJSONStructure;
+        }
+
+        @Override
+        public void mutateAncestry(EasyJSON easyJSONStructure, JSONElement parent) {
+            super.mutateAncestry(easyJSONStructure, parent);
+            this.easyJSONStructure = parent == null ? easyJSONStructure : null;
+        }
+
+        long revision() {
+            return revision;
+        }
+    }
+
+    /**
+     * Children list that keeps the owning node's key index in sync with every change.
+     * The children are held in an array sized to fit, rather than behind an ArrayList.
+     * <p>
+     * The index is only ever changed by the methods that change the list, so lookups never write.
+     * The list of a lazily opened node starts out empty, holding where its children are in the tape,
+     * and is filled when the node first hands it out or searches it.
+     */
+    private static final class ChildList extends AbstractList<JSONElement> {
+        private static final JSONElement[] EMPTY = {};
+
+        private final JSONElementImpl owner;
+        private JSONElement[] elements;
+        private int size;
+        /**
+         * The first child with each key, for structures with at least INDEX_THRESHOLD children
+         */
+        private Map<String, JSONElement> index;
+        private boolean indexHasDuplicates;
+        /**
+         * The tape the children are still to be read from, or null once they have been
+         */
+        private volatile JSONTape pendingTape;
+        private int pendingEntry;
+
+        ChildList(JSONElementImpl owner) {
+            this.owner = owner;
+            elements = EMPTY;
+        }
+
+        ChildList(JSONElementImpl owner, JSONTape tape, int entry) {
+            this.owner = owner;
+            elements = EMPTY;
+            pendingEntry = entry;
+            pendingTape = tape;
+        }
+
+        void fill() {
+            if (pendingTape != null) {
+                fillFromTape();
+            }
+        }
+
+        /**
+         * Reads the children from the tape. Readers on other threads wait here rather than
+         * seeing a half-filled list, and only look at it once pendingTape is cleared.
+         */
+        private synchronized void fillFromTape() {
+            JSONTape tape = pendingTape;
+            if (tape == null) {
+                return;
+            }
+            boolean object = tape.kind(pendingEntry) == JSONTape.OBJECT;
+            elements = new JSONElement[tape.count(pendingEntry)];
+            int end = tape.next(pendingEntry);
+            for (int e = pendingEntry + 1; e < end; e = tape.next(e)) {
+                String childKey = object ? tape.string(e++) : "";
+                addParsed(fromTape(owner, tape, e, childKey), object);
+            }
+            pendingTape = null;
+        }
+
+        @Override
+        public JSONElement get(int i) {
+            Objects.checkIndex(i, size);
+            return elements[i];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void add(int i, JSONElement element) {
+            insert(i, element);
+            owner.changed();
+        }
+
+        private void insert(int i, JSONElement element) {
+            if (i < 0 || i > size) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+            }
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(4, size + (size >> 1)));
+            }
+            System.arraycopy(elements, i, elements, i + 1, size - i);
+            elements[i] = element;
+            size++;
+            modCount++;
+            if (index != null && i == size - 1) {
+                indexAppended(element);
+            } else {
+                reindex();
+            }
+        }
+
+        @Override
+        public JSONElement remove(int i) {
+            Objects.checkIndex(i, size);
+            JSONElement removed = elements[i];
+            System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+            elements[--size] = null;
+            modCount++;
+            owner.changed();
+            if (index != null) {
+                indexRemoved(removed);
+            }
+            return removed;
+        }
+
+        @Override
+        public JSONElement set(int i, JSONElement element) {
+            JSONElement replaced = replace(i, element);
+            owner.changed();
+            return replaced;
+        }
+
+        private JSONElement replace(int i, JSONElement element) {
+            Objects.checkIndex(i, size);
+            JSONElement replaced = elements[i];
+            elements[i] = element;
+            if (index != null) {
+                String oldKey = replaced.getKey();
+                String newKey = element.getKey();
+                if (!indexHasDuplicates && Objects.equals(oldKey, newKey) && (newKey == null || index.get(newKey) == replaced)) {
+                    if (newKey != null) {
+                        index.put(newKey, element);
+                    }
+                } else {
+                    reindex();
+                }
+            }
+            return replaced;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(elements, 0, size, null);
+            size = 0;
+            modCount++;
+            owner.changed();
+            index = null;
+        }
+
+        void addParsed(JSONElement child, boolean keyed) {
+            JSONElement existing = keyed && child.getKey() != null ? find(child.getKey()) : null;
+            if (existing == null) {
+                insert(size, child);
+            } else {
+                replace(indexOf(existing), child);
+            }
+        }
+
+        JSONElement find(String key) {
+            Map<String, JSONElement> index = this.index;
+            if (index != null) {
+                return index.get(key);
+            }
+            for (int i = 0; i < size; i++) {
+                if (key.equals(elements[i].getKey())) {
+                    return elements[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Builds the key index from scratch if the owner is a large enough structure, or drops it otherwise.
+         * The new index is only stored once it's complete.
+         */
+        void reindex() {
+            if (size < INDEX_THRESHOLD || owner.type == JSONElementType.ARRAY) {
+                index = null;
+                return;
+            }
+            Map<String, JSONElement> built = new HashMap<>(size * 2);
+            boolean duplicates = false;
+            for (int i = 0; i < size; i++) {
+                String key = elements[i].getKey();
+                if (key != null && built.putIfAbsent(key, elements[i]) != null) {
+                    duplicates = true;
+                }
+            }
+            indexHasDuplicates = duplicates;
+            index = built;
+        }
+
+        private void indexAppended(JSONElement child) {
+            if (child.getKey() != null && index.putIfAbsent(child.getKey(), child) != null) {
+                indexHasDuplicates = true;
+            }
+        }
+
+        private void indexRemoved(JSONElement child) {
+            if (child.getKey() != null && index.get(child.getKey()) == child) {
+                if (indexHasDuplicates) {
+                    reindex(); // another child may share the key
+                } else {
+                    index.remove(child.getKey());
+                }
+            }
+        }
+
+        void childRekeyed(JSONElement child, String oldKey) {
+            if (index == null) {
+                return;
+            }
+            String newKey = child.getKey();
+            boolean indexed = oldKey != null && index.get(oldKey) == child;
+            if (indexHasDuplicates || (oldKey != null && !indexed) || (newKey != null && index.containsKey(newKey))) {
+                reindex();
+                return;
+            }
+            if (indexed) {
+                index.remove(oldKey);
+            }
+            if (newKey != null) {
+                index.put(newKey, child);
+            }
         }
-        return obj.toJSONString();
     }
 }
@@ -0,0 +1,74 @@
+package xyz.victorolaitan.easyjson;
+
+import org.json.simple.JSONValue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Streams a node tree as JSON text, walking the nodes directly instead of
+ * copying them into SimpleJSON maps and lists first.
+ * The walk keeps its own stack, so the depth of the tree isn't limited by the thread's stack.
+ */
+final class JSONElementWriter {
+
+    private JSONElementWriter() {
+    }
+
+    static void write(JSONElement element, Writer out) throws IOException {
+        Deque<Container> stack = new ArrayDeque<>();
+        open(element, out, stack);
+        while (!stack.isEmpty()) {
+            Container container = stack.peek();
+            if (!container.children.hasNext()) {
+                out.write(container.structure ? '}' : ']');
+                stack.pop();
+                continue;
+            }
+            JSONElement child = container.children.next();
+            if (container.first) {
+                container.first = false;
+            } else {
+                out.write(',');
+            }
+            if (container.structure) {
+                out.write('\"');
+                JSONValue.writeEscaped(String.valueOf(child.getKey()), out);
+                out.write('\"');
+                out.write(':');
+            }
+            open(child, out, stack);
+        }
+    }
+
+    /**
+     * Writes a primitive, or the opening bracket of a container whose children are then written from the stack.
+     */
+    private static void open(JSONElement element, Writer out, Deque<Container> stack) throws IOException {
+        switch (element.getType()) {
+            case PRIMITIVE -> JSONValue.writeJSONString(element.getValue(), out);
+            case ARRAY -> {
+                out.write('[');
+                stack.push(new Container(element, false));
+            }
+            case STRUCTURE, ROOT -> {
+                out.write('{');
+                stack.push(new Container(element, true));
+            }
+        }
+    }
+
+    private static final class Container {
+        final Iterator<JSONElement> children;
+        final boolean structure;
+        boolean first = true;
+
+        Container(JSONElement element, boolean structure) {
+            this.children = element.iterator();
+            this.structure = structure;
+        }
+    }
+}
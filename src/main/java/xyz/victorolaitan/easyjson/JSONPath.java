@@ -0,0 +1,132 @@
+package xyz.victorolaitan.easyjson;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+/**
+ * A search location that is prepared once and used many times.
+ * The segments are interned and array indices are parsed when the path is compiled,
+ * and the node a path last resolved to is kept until the structure of the document it was found in changes,
+ * so repeating a lookup from the same node doesn't walk the tree again.
+ * Lookups in a tree that doesn't belong to a structure aren't kept.
+ * The last lookup is only held weakly, so a long-lived path doesn't keep the last document it searched alive,
+ * and a path shared between threads at worst walks the tree again.
+ * <p>
+ * <b>Example</b>
+ * <p>
+ * {@code JSONPath p99 = JSONPath.compile("metrics", "cpu", "p99");}
+ * <br>
+ * {@code Object value = json.valueOf(p99);}
+ */
+public final class JSONPath {
+    private final String[] segments;
+    /**
+     * The array index each segment stands for, or -1
+     */
+    private final int[] indices;
+    private volatile Resolution last;
+
+    private JSONPath(String[] segments, int[] indices) {
+        this.segments = segments;
+        this.indices = indices;
+    }
+
+    /**
+     * @param location search path for a node, as passed to {@link JSONElement#search(String...)}
+     * @return the compiled path
+     */
+    public static JSONPath compile(String... location) {
+        String[] segments = new String[location.length];
+        int[] indices = new int[location.length];
+        for (int i = 0; i < location.length; i++) {
+            segments[i] = location[i] == null ? null : location[i].intern();
+            indices[i] = JSONElementImpl.parseIndex(location[i]);
+        }
+        return new JSONPath(segments, indices);
+    }
+
+    /**
+     * Finds the node at this path, like {@link JSONElement#search(String...)}
+     *
+     * @param from node to search from
+     * @return node found or null
+     */
+    public JSONElement search(JSONElement from) {
+        JSONElementImpl.Root root = from instanceof JSONElementImpl fromImpl ? JSONElementImpl.rootOf(fromImpl) : null;
+        long revision = root == null ? 0 : root.revision();
+        Resolution resolution = last;
+        if (resolution != null && resolution.isFor(from, root, revision)) {
+            if (resolution.node == null) {
+                return null;
+            }
+            JSONElement node = resolution.node.get();
+            if (node != null) {
+                return node;
+            }
+        }
+        JSONElement node = resolve(from);
+        // read-only documents never change, so only the node searched from has to match
+        if (root != null || from instanceof TapeElement) {
+            last = new Resolution(from, root, revision, node);
+        }
+        return node;
+    }
+
+    /**
+     * Gets the value of the node at this path, like {@link JSONElement#valueOf(String...)}
+     *
+     * @param from node to search from
+     * @see #search(JSONElement)
+     */
+    public Object valueOf(JSONElement from) {
+        JSONElement result = search(from);
+        return result != null ? result.getValue() : null;
+    }
+
+    private JSONElement resolve(JSONElement from) {
+        if (segments.length == 0) {
+            return null;
+        }
+        JSONElement match = from;
+        for (int i = 0; i < segments.length && match != null; i++) {
+            if (match.getType() == JSONElementType.ARRAY) {
+                List<JSONElement> children = match.getChildren();
+                match = indices[i] >= 0 && indices[i] < children.size() ? children.get(indices[i]) : null;
+            } else {
+                match = JSONElementImpl.childOf(match, segments[i]);
+            }
+        }
+        return match;
+    }
+
+    @Override
+    public String toString() {
+        return String.join("/", segments);
+    }
+
+    /**
+     * A path's last lookup, with the root and revision of the document it was made in.
+     * The nodes are held weakly; node is null if nothing was found.
+     */
+    private static final class Resolution {
+        final WeakReference<JSONElement> from;
+        final WeakReference<JSONElementImpl.Root> root;
+        final long revision;
+        final WeakReference<JSONElement> node;
+
+        Resolution(JSONElement from, JSONElementImpl.Root root, long revision, JSONElement node) {
+            this.from = new WeakReference<>(from);
+            this.root = root == null ? null : new WeakReference<>(root);
+            this.revision = revision;
+            this.node = node == null ? null : new WeakReference<>(node);
+        }
+
+        /**
+         * @return whether this lookup was made from the node, in the same revision of the same document
+         */
+        boolean isFor(JSONElement from, JSONElementImpl.Root root, long revision) {
+            return this.from.get() == from && this.revision == revision
+                    && (this.root == null ? root == null : this.root.get() == root);
+        }
+    }
+}
@@ -0,0 +1,663 @@
+package xyz.victorolaitan.easyjson;
+
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A flat index of the tokens of a UTF-8 encoded document, kept next to the document's bytes.
+ * <p>
+ * Each value gets one entry, in document order. An entry has a kind, the offset of its first byte, and a link:
+ * the end offset for scalars, and for objects and arrays the number of members (high 32 bits) and the entry
+ * just past their last descendant (low 32 bits), so a whole subtree is skipped in one step.
+ * Object members are a key entry followed by the value's entries.
+ * <p>
+ * Values are only decoded from the bytes when they're asked for.
+ * <p>
+ * Like a parsed document, an object whose keys repeat has one child per key, in the place of the key's first
+ * member, with the value of its last. Objects and arrays with at least {@link #INDEX_THRESHOLD} members get an
+ * index of their children the first time they're searched, so lookups in them don't walk the tape.
+ * Small ones are walked, without allocating. A tape never changes once it's built, so it can be read
+ * from several threads.
+ */
+final class JSONTape {
+    static final byte OBJECT = 1;
+    static final byte ARRAY = 2;
+    static final byte STRING = 3;
+    /**
+     * a string containing backslash escapes, which needs decoding
+     */
+    static final byte ESCAPED_STRING = 4;
+    static final byte NUMBER = 5;
+    static final byte TRUE = 6;
+    static final byte FALSE = 7;
+    static final byte NULL = 8;
+
+    /**
+     * Objects and arrays with at least this many members are indexed when they're first searched
+     */
+    private static final int INDEX_THRESHOLD = 8;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ByteBuffer bytes;
+    private final int numberMode;
+    private byte[] kinds;
+    private int[] offsets;
+    private long[] links;
+    private int size;
+    private final Map<Integer, ContainerIndex> indexes = new ConcurrentHashMap<>();
+
+    private JSONTape(ByteBuffer bytes, int numberMode) {
+        this.bytes = bytes;
+        this.numberMode = numberMode;
+        int capacity = Math.min(INITIAL_CAPACITY, bytes.limit() + 1);
+        kinds = new byte[capacity];
+        offsets = new int[capacity];
+        links = new long[capacity];
+    }
+
+    /**
+     * Indexes a whole document, checking that it's well-formed JSON.
+     *
+     * @param bytes      the document, from the buffer's position to its limit; the buffer must not change afterwards
+     * @param numberMode how numbers are decoded, one of the JSONParser.NUMBERS_* modes
+     * @param maxDepth   the deepest objects and arrays may be nested
+     */
+    static JSONTape parse(ByteBuffer bytes, int numberMode, int maxDepth) throws ParseException {
+        JSONTape tape = new JSONTape(bytes.slice(), numberMode);
+        tape.scan(maxDepth);
+        tape.trim();
+        return tape;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte kind(int entry) {
+        return kinds[entry];
+    }
+
+    boolean isContainer(int entry) {
+        return kinds[entry] == OBJECT || kinds[entry] == ARRAY;
+    }
+
+    /**
+     * @return the entry after this one and all of its descendants
+     */
+    int next(int entry) {
+        return isContainer(entry) ? (int) links[entry] : entry + 1;
+    }
+
+    /**
+     * @return the number of members of an object or array, counting every member of a repeated key
+     */
+    int count(int entry) {
+        return (int) (links[entry] >>> 32);
+    }
+
+    /**
+     * @return the number of children of an object or array, counting a repeated key once
+     */
+    int childCount(int container) {
+        if (count(container) >= INDEX_THRESHOLD) {
+            return index(container).children.length;
+        }
+        if (kinds[container] == ARRAY) {
+            return count(container);
+        }
+        int children = 0;
+        int end = next(container);
+        for (int e = container + 1; e < end; e = next(e + 1)) {
+            if (!repeatsEarlierKey(container, e)) {
+                children++;
+            }
+        }
+        return children;
+    }
+
+    /**
+     * @return the value entry of a child of an object or array, or -1 if the index is out of bounds
+     */
+    int child(int container, int index) {
+        if (kinds[container] == ARRAY) {
+            return element(container, index);
+        }
+        if (index < 0) {
+            return -1;
+        }
+        if (count(container) >= INDEX_THRESHOLD) {
+            int[] children = index(container).children;
+            return index < children.length ? children[index] : -1;
+        }
+        int end = next(container);
+        for (int e = container + 1; e < end; e = next(e + 1)) {
+            if (!repeatsEarlierKey(container, e) && index-- == 0) {
+                return lastValue(e, end);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the entry of the value of an object member with the given key, or -1 if there's none;
+     * the last one if the key repeats
+     */
+    int member(int object, String key) {
+        int count = count(object);
+        if (count >= INDEX_THRESHOLD) {
+            return indexedMember(object, key);
+        }
+        int found = -1;
+        for (int i = 0, e = object + 1; i < count; i++) {
+            if (keyEquals(e, key)) {
+                found = e + 1;
+            }
+            if (i + 1 < count) {
+                e = next(e + 1);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the entry of an array element, or -1 if the index is out of bounds
+     */
+    int element(int array, int index) {
+        int count = count(array);
+        if (index < 0 || index >= count) {
+            return -1;
+        }
+        if (count >= INDEX_THRESHOLD) {
+            return index(array).children[index];
+        }
+        int e = array + 1;
+        for (int i = 0; i < index; i++) {
+            e = next(e);
+        }
+        return e;
+    }
+
+    private int indexedMember(int object, String key) {
+        Integer found = index(object).members.get(key);
+        return found == null ? -1 : found;
+    }
+
+    private ContainerIndex index(int container) {
+        return indexes.computeIfAbsent(container, this::buildIndex);
+    }
+
+    private ContainerIndex buildIndex(int container) {
+        int[] children = new int[count(container)];
+        int end = next(container);
+        if (kinds[container] == ARRAY) {
+            int i = 0;
+            for (int e = container + 1; e < end; e = next(e)) {
+                children[i++] = e;
+            }
+            return new ContainerIndex(children, null);
+        }
+        Map<String, Integer> members = new HashMap<>(children.length * 2);
+        Map<String, Integer> positions = new HashMap<>(children.length * 2);
+        int distinct = 0;
+        for (int e = container + 1; e < end; e = next(e + 1)) {
+            String key = string(e);
+            members.put(key, e + 1);
+            Integer position = positions.putIfAbsent(key, distinct);
+            children[position == null ? distinct++ : position] = e + 1;
+        }
+        return new ContainerIndex(distinct < children.length ? Arrays.copyOf(children, distinct) : children, members);
+    }
+
+    /**
+     * @return whether a member of an object before the one with the given key entry has the same key
+     */
+    private boolean repeatsEarlierKey(int object, int keyEntry) {
+        for (int e = object + 1; e < keyEntry; e = next(e + 1)) {
+            if (keysEqual(e, keyEntry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the value entry of the last member, from the one with the given key entry on, that has its key
+     */
+    private int lastValue(int keyEntry, int end) {
+        int found = keyEntry + 1;
+        for (int e = next(keyEntry + 1); e < end; e = next(e + 1)) {
+            if (keysEqual(keyEntry, e)) {
+                found = e + 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the value of a scalar entry, as the parser would produce it; objects and arrays have no value
+     */
+    Object value(int entry) {
+        return switch (kinds[entry]) {
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case STRING, ESCAPED_STRING -> string(entry);
+            case NUMBER -> toNumber(entry);
+            default -> null;
+        };
+    }
+
+    String string(int entry) {
+        int start = offsets[entry] + 1;
+        int length = (int) links[entry] - 1 - start;
+        if (kinds[entry] == ESCAPED_STRING) {
+            return unescape(start, start + length);
+        }
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        byte[] copy = new byte[length];
+        bytes.get(start, copy);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+
+    private boolean keysEqual(int a, int b) {
+        if (kinds[a] != STRING || kinds[b] != STRING) {
+            return string(a).equals(string(b));
+        }
+        int startA = offsets[a] + 1;
+        int startB = offsets[b] + 1;
+        int lengthA = (int) links[a] - 1 - startA;
+        int lengthB = (int) links[b] - 1 - startB;
+        if (lengthA == lengthB) {
+            for (int i = 0; i < lengthA; i++) {
+                byte x = bytes.get(startA + i);
+                byte y = bytes.get(startB + i);
+                if (x != y) {
+                    return (x < 0 || y < 0) && string(a).equals(string(b));
+                }
+            }
+            return true;
+        }
+        // keys of different lengths can only decode to the same text if they both have malformed multi-byte characters
+        return hasMultiByte(startA, lengthA) && hasMultiByte(startB, lengthB) && string(a).equals(string(b));
+    }
+
+    private boolean hasMultiByte(int start, int length) {
+        for (int i = start; i < start + length; i++) {
+            if (bytes.get(i) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean keyEquals(int entry, String key) {
+        if (kinds[entry] == STRING) {
+            int start = offsets[entry] + 1;
+            int length = (int) links[entry] - 1 - start;
+            if (length != key.length()) {
+                // only equal if the key has multi-byte characters
+                return length > key.length() && hasMultiByte(start, length) && string(entry).equals(key);
+            }
+            for (int i = 0; i < length; i++) {
+                byte b = bytes.get(start + i);
+                if (b < 0) {
+                    return string(entry).equals(key);
+                }
+                if (b != key.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return string(entry).equals(key);
+    }
+
+    /**
+     * Converts a number the way the parser would in this tape's number mode
+     */
+    private Number toNumber(int entry) {
+        int start = offsets[entry];
+        char[] chars = new char[(int) links[entry] - start];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) bytes.get(start + i);
+        }
+        return JSONParser.toNumber(chars, 0, chars.length, numberMode);
+    }
+
+    /**
+     * Decodes the bytes of a string with escapes the way the parser's UTF-8 lexer does: a backslash that
+     * doesn't start a valid escape is kept as is, and malformed UTF-8 becomes U+FFFD
+     */
+    private String unescape(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        int i = start;
+        while (i < end) {
+            int b = bytes.get(i++) & 0xFF;
+            if (b == '\\') {
+                i = unescapeOne(i, end, sb);
+            } else if (b < 0x80) {
+                sb.append((char) b);
+            } else {
+                i = decodeMultiByte(b, i, end, sb);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param i the position after the backslash
+     * @return the position after the escape
+     */
+    private int unescapeOne(int i, int end, StringBuilder sb) {
+        int c = i < end ? bytes.get(i) : -1;
+        char decoded;
+        switch (c) {
+            case '"', '\\', '/' -> decoded = (char) c;
+            case 'b' -> decoded = '\b';
+            case 'f' -> decoded = '\f';
+            case 'n' -> decoded = '\n';
+            case 'r' -> decoded = '\r';
+            case 't' -> decoded = '\t';
+            case 'u' -> {
+                int ch = 0;
+                for (int digit = 1; digit <= 4; digit++) {
+                    int value = i + digit < end ? Character.digit(bytes.get(i + digit), 16) : -1;
+                    if (value < 0) {
+                        // not an escape: keep the backslash, the 'u' and the digits so far
+                        sb.append('\\');
+                        return i;
+                    }
+                    ch = (ch << 4) | value;
+                }
+                sb.append((char) ch);
+                return i + 5;
+            }
+            default -> {
+                sb.append('\\');
+                return i;
+            }
+        }
+        sb.append(decoded);
+        return i + 1;
+    }
+
+    /**
+     * @param b the sequence's first byte
+     * @param i the position after it
+     * @return the position after the sequence, or after its valid part if it's malformed
+     */
+    private int decodeMultiByte(int b, int i, int end, StringBuilder sb) {
+        int cp;
+        int extra;
+        if (b >= 0xC2 && b <= 0xDF) {
+            cp = b & 0x1F;
+            extra = 1;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            cp = b & 0x0F;
+            extra = 2;
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            cp = b & 0x07;
+            extra = 3;
+        } else {
+            sb.append('\uFFFD');
+            return i;
+        }
+        for (int k = 0; k < extra; k++) {
+            int c = i < end ? bytes.get(i) & 0xFF : -1;
+            if ((c & 0xC0) != 0x80) {
+                sb.append('\uFFFD');
+                return i;
+            }
+            i++;
+            cp = (cp << 6) | (c & 0x3F);
+        }
+        if ((extra == 2 && (cp < 0x800 || (cp >= 0xD800 && cp <= 0xDFFF)))
+                || (extra == 3 && (cp < 0x10000 || cp > 0x10FFFF))) {
+            sb.append('\uFFFD');
+            return i;
+        }
+        sb.appendCodePoint(cp);
+        return i;
+    }
+
+    // ---- building
+
+    private static final int VALUE = 0;
+    private static final int KEY = 1;
+    private static final int AFTER_VALUE = 2;
+
+    private void scan(int maxDepth) throws ParseException {
+        int[] open = new int[16];
+        int[] counts = new int[16];
+        int depth = 0;
+        int limit = bytes.limit();
+        int state = VALUE;
+        int pos = 0;
+        while (true) {
+            pos = skipWhitespace(pos);
+            int c = pos < limit ? bytes.get(pos) & 0xFF : -1;
+            switch (state) {
+                case VALUE:
+                    if (c == '{' || c == '[') {
+                        if (depth == maxDepth) {
+                            throw new ParseException(pos, ParseException.ERROR_MAX_DEPTH_EXCEEDED, maxDepth);
+                        }
+                        if (depth == open.length) {
+                            open = Arrays.copyOf(open, depth * 2);
+                            counts = Arrays.copyOf(counts, depth * 2);
+                        }
+                        open[depth] = add(c == '{' ? OBJECT : ARRAY, pos, 0);
+                        counts[depth++] = 0;
+                        pos = skipWhitespace(pos + 1);
+                        int close = c == '{' ? '}' : ']';
+                        if (pos < limit && bytes.get(pos) == close) {
+                            pos++;
+                            depth--;
+                            links[open[depth]] = size;
+                            state = AFTER_VALUE;
+                        } else {
+                            state = c == '{' ? KEY : VALUE;
+                        }
+                    } else {
+                        pos = scalar(c, pos);
+                        state = AFTER_VALUE;
+                    }
+                    break;
+                case KEY:
+                    if (c != '"') {
+                        throw unexpected(c, pos);
+                    }
+                    pos = skipWhitespace(scanString(pos));
+                    if (pos >= limit || bytes.get(pos) != ':') {
+                        throw unexpected(pos < limit ? bytes.get(pos) & 0xFF : -1, pos);
+                    }
+                    pos++;
+                    state = VALUE;
+                    break;
+                default:
+                    if (depth == 0) {
+                        if (c != -1) {
+                            throw unexpected(c, pos);
+                        }
+                        return;
+                    }
+                    int container = open[depth - 1];
+                    boolean object = kinds[container] == OBJECT;
+                    counts[depth - 1]++;
+                    if (c == ',') {
+                        pos++;
+                        state = object ? KEY : VALUE;
+                    } else if (c == (object ? '}' : ']')) {
+                        pos++;
+                        depth--;
+                        links[container] = ((long) counts[depth] << 32) | size;
+                    } else {
+                        throw unexpected(c, pos);
+                    }
+            }
+        }
+    }
+
+    private int add(byte kind, int offset, long link) {
+        if (size == kinds.length) {
+            resize(size + (size >> 1) + 1);
+        }
+        kinds[size] = kind;
+        offsets[size] = offset;
+        links[size] = link;
+        return size++;
+    }
+
+    /**
+     * Drops the room the arrays grew past the last entry
+     */
+    private void trim() {
+        if (size < kinds.length) {
+            resize(size);
+        }
+    }
+
+    private void resize(int capacity) {
+        kinds = Arrays.copyOf(kinds, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    private int scalar(int c, int pos) throws ParseException {
+        switch (c) {
+            case '"':
+                return scanString(pos);
+            case 't':
+                return literal("true", TRUE, pos);
+            case 'f':
+                return literal("false", FALSE, pos);
+            case 'n':
+                return literal("null", NULL, pos);
+            default:
+                if (c == '-' || isDigit(c)) {
+                    return number(pos);
+                }
+                throw unexpected(c, pos);
+        }
+    }
+
+    private int scanString(int pos) throws ParseException {
+        int limit = bytes.limit();
+        boolean escaped = false;
+        for (int i = pos + 1; i < limit; i++) {
+            byte b = bytes.get(i);
+            if (b == '"') {
+                add(escaped ? ESCAPED_STRING : STRING, pos, i + 1);
+                return i + 1;
+            }
+            if (b == '\\') {
+                escaped = true;
+                i++;
+            }
+        }
+        throw unexpected(-1, limit);
+    }
+
+    private int literal(String text, byte kind, int pos) throws ParseException {
+        for (int i = 0; i < text.length(); i++) {
+            int at = pos + i;
+            if (at >= bytes.limit() || bytes.get(at) != text.charAt(i)) {
+                throw unexpected(text.charAt(0), pos);
+            }
+        }
+        add(kind, pos, pos + text.length());
+        return pos + text.length();
+    }
+
+    /**
+     * Matches the lexers' number grammar: {@code -?[0-9]+(\.[0-9]+)?([eE][+-]?[0-9]+)?}
+     */
+    private int number(int pos) throws ParseException {
+        int i = pos;
+        if (digit(i) < 0) {
+            i++;
+        }
+        i = digits(i, pos);
+        if (at(i) == '.') {
+            i = digits(i + 1, i);
+        }
+        if (at(i) == 'e' || at(i) == 'E') {
+            int e = i++;
+            if (at(i) == '+' || at(i) == '-') {
+                i++;
+            }
+            i = digits(i, e);
+        }
+        add(NUMBER, pos, i);
+        return i;
+    }
+
+    private int digits(int pos, int errorPos) throws ParseException {
+        if (digit(pos) < 0) {
+            throw unexpected(at(errorPos), errorPos);
+        }
+        while (digit(pos) >= 0) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int digit(int pos) {
+        int c = at(pos);
+        return isDigit(c) ? c - '0' : -1;
+    }
+
+    private int at(int pos) {
+        return pos < bytes.limit() ? bytes.get(pos) & 0xFF : -1;
+    }
+
+    private int skipWhitespace(int pos) {
+        int limit = bytes.limit();
+        while (pos < limit) {
+            byte b = bytes.get(pos);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static ParseException unexpected(int c, int pos) {
+        if (c == -1) {
+            return new ParseException(pos, ParseException.ERROR_UNEXPECTED_TOKEN, null);
+        }
+        return new ParseException(pos, ParseException.ERROR_UNEXPECTED_CHAR, (char) c);
+    }
+
+    /**
+     * The children of a large object or array
+     */
+    private static final class ContainerIndex {
+        /**
+         * The value entry of each child, in order
+         */
+        final int[] children;
+        /**
+         * The value entry of the last member with each key; null for arrays
+         */
+        final Map<String, Integer> members;
+
+        ContainerIndex(int[] children, Map<String, Integer> members) {
+            this.children = children;
+            this.members = members;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package xyz.victorolaitan.easyjson;
+
+import org.json.simple.LazyNumber;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.Projection;
+
+/**
+ * Options controlling how {@link EasyJSON#open(java.io.File, OpenOptions)} reads a file.
+ * <p>
+ * <b>Example</b>
+ * <p>
+ * {@code EasyJSON json = EasyJSON.open(file, OpenOptions.defaults().memoryMapped(true));}
+ */
+public final class OpenOptions {
+    /**
+     * The nesting depth documents are limited to unless {@link #maxDepth(int)} says otherwise.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 100_000;
+
+    private boolean memoryMapped;
+    private boolean lazyNumbers;
+    private boolean bigNumbers;
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+    private boolean readOnly;
+    private boolean lazy;
+    private Projection projection;
+
+    private OpenOptions() {
+    }
+
+    /**
+     * @return options that read the file the same way as {@link EasyJSON#open(java.io.File)}
+     */
+    public static OpenOptions defaults() {
+        return new OpenOptions();
+    }
+
+    /**
+     * Memory-maps the file and parses it straight from the mapped pages instead of streaming it through a heap buffer.
+     * The pages are shared with the OS page cache, which suits very large files (including files over 2GB)
+     * and files that several processes open.
+     *
+     * @param memoryMapped whether the file should be memory-mapped
+     * @return these options
+     */
+    public OpenOptions memoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+        return this;
+    }
+
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * Keeps numbers as {@link LazyNumber} values holding their text, which are only converted when they're read.
+     * This saves converting (and boxing) the numbers of a document that are never used.
+     * Lazy numbers are written back as their original text.
+     *
+     * @param lazyNumbers whether numbers should be converted lazily
+     * @return these options
+     */
+    public OpenOptions lazyNumbers(boolean lazyNumbers) {
+        this.lazyNumbers = lazyNumbers;
+        return this;
+    }
+
+    public boolean isLazyNumbers() {
+        return lazyNumbers;
+    }
+
+    /**
+     * Reads numbers without losing precision: integers outside the range of a long become {@link java.math.BigInteger}s,
+     * and numbers with a fraction or an exponent become {@link java.math.BigDecimal}s instead of doubles.
+     * Both are written back exactly. Lazy numbers keep their full text anyway, so this has no effect with {@link #lazyNumbers(boolean)}.
+     *
+     * @param bigNumbers whether numbers should keep their full precision
+     * @return these options
+     */
+    public OpenOptions bigNumbers(boolean bigNumbers) {
+        this.bigNumbers = bigNumbers;
+        return this;
+    }
+
+    public boolean isBigNumbers() {
+        return bigNumbers;
+    }
+
+    /**
+     * Limits how deeply objects and arrays may be nested. A document that nests deeper fails to open
+     * as soon as the limit is passed, before the rest of it is read.
+     * Nodes are built, searched, exported and written without recursion, so deep documents within the limit are safe.
+     *
+     * @param maxDepth the maximum number of objects and arrays a value may be nested in, counting the root
+     * @return these options
+     */
+    public OpenOptions maxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Opens the file as a read-only document. Instead of a node per value, the document is kept as its bytes plus
+     * a flat index of where each value starts and ends, and nodes are only created for the values that are reached.
+     * Searching, reading values, iterating, exporting and writing work as usual; changing the document throws
+     * an {@link UnsupportedOperationException}. The file must be at most 2GB, and strictly well-formed JSON.
+     *
+     * @param readOnly whether the file should be opened read-only
+     * @return these options
+     */
+    public OpenOptions readOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        return this;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Only indexes where each value starts and ends when the file is opened, and creates the nodes of
+     * an object or array the first time its children are used (by searching it, iterating it or getting its children).
+     * Opening a large file to read a few values from it then only builds the nodes along the way to those values.
+     * The document stays fully editable. Its bytes are kept until every node has been created.
+     * The file must be at most 2GB, and strictly well-formed JSON. {@link #readOnly(boolean)} takes precedence over this.
+     *
+     * @param lazy whether nodes should be created as they're needed
+     * @return these options
+     */
+    public OpenOptions lazy(boolean lazy) {
+        this.lazy = lazy;
+        return this;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Only reads the value at a location (and everything inside it), like a search for it would find it;
+     * {@code "*"} matches every key or index. Call this once for each location to read.
+     * Everything outside the locations is skipped without being parsed, so no nodes are built for it.
+     * Elements of arrays along the way that aren't read become null, so the ones that are read keep their indices,
+     * and the elements after the last one read are left out.
+     * Read-only and lazy documents already only create the nodes that are used, so this doesn't apply to them.
+     * <p>
+     * {@code OpenOptions.defaults().include("header", "version").include("items", "*", "id")}
+     *
+     * @param location search path for a value to read
+     * @return these options
+     */
+    public OpenOptions include(String... location) {
+        if (projection == null) {
+            projection = new Projection();
+        }
+        projection.include(location);
+        return this;
+    }
+
+    Projection projection() {
+        return projection;
+    }
+
+    int numberMode() {
+        if (lazyNumbers) {
+            return JSONParser.NUMBERS_LAZY;
+        }
+        return bigNumbers ? JSONParser.NUMBERS_BIG : JSONParser.NUMBERS_EAGER;
+    }
+}
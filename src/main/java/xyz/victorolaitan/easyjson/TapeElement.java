@@ -0,0 +1,309 @@
+package xyz.victorolaitan.easyjson;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A read-only node of a document opened with {@link OpenOptions#readOnly(boolean)}.
+ * <p>
+ * The node is only a position in the document's {@link JSONTape}, so a document costs a few arrays
+ * however many values it has. Nodes are created as they're reached, and searches and
+ * {@link #valueOf(String...)} walk the tape without creating the nodes in between.
+ * Every method that would change the document throws an {@link UnsupportedOperationException}.
+ */
+final class TapeElement implements JSONElement {
+    /**
+     * Only set on the root; every other node finds it through its root
+     */
+    private final EasyJSON easyJSONStructure;
+    private final TapeElement parent;
+    private final JSONTape tape;
+    private final int entry;
+    /**
+     * The tape entry of this node's key, or -1 for the root and array elements
+     */
+    private final int keyEntry;
+
+    private TapeElement(EasyJSON easyJSONStructure, TapeElement parent, JSONTape tape, int entry, int keyEntry) {
+        this.easyJSONStructure = easyJSONStructure;
+        this.parent = parent;
+        this.tape = tape;
+        this.entry = entry;
+        this.keyEntry = keyEntry;
+    }
+
+    /**
+     * @return the root node of a document
+     */
+    static TapeElement root(EasyJSON easyJSONStructure, JSONTape tape) {
+        return new TapeElement(easyJSONStructure, null, tape, 0, -1);
+    }
+
+    @Override
+    public EasyJSON getEasyJSONStructure() {
+        TapeElement node = this;
+        while (node.parent != null) {
+            node = node.parent;
+        }
+        return node.easyJSONStructure;
+    }
+
+    @Override
+    public JSONElement getParent() {
+        return parent;
+    }
+
+    @Override
+    public void mutateAncestry(EasyJSON easyJSONStructure, JSONElement parent) {
+        throw readOnly();
+    }
+
+    @Override
+    public JSONElementType getType() {
+        return switch (tape.kind(entry)) {
+            case JSONTape.OBJECT -> parent == null ? JSONElementType.ROOT : JSONElementType.STRUCTURE;
+            case JSONTape.ARRAY -> JSONElementType.ARRAY;
+            default -> JSONElementType.PRIMITIVE;
+        };
+    }
+
+    @Override
+    public void setType(SafeJSONElementType type) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<JSONElement> getChildren() {
+        return new Children();
+    }
+
+    @Override
+    public String getKey() {
+        if (keyEntry >= 0) {
+            return tape.string(keyEntry);
+        }
+        return parent == null ? null : "";
+    }
+
+    @Override
+    public void setKey(String key) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object getValue() {
+        return tape.value(entry);
+    }
+
+    @Override
+    public void setValue(Object value) {
+        throw readOnly();
+    }
+
+    @Override
+    public void putElement(JSONElement... elements) {
+        throw readOnly();
+    }
+
+    @Override
+    public JSONElement putElement(String key, JSONElement jsonElement) {
+        throw readOnly();
+    }
+
+    @Override
+    public JSONElement putPrimitive(Object value) {
+        throw readOnly();
+    }
+
+    @Override
+    public JSONElement putPrimitive(String key, Object value) {
+        throw readOnly();
+    }
+
+    @Override
+    public JSONElement putStructure(String key) {
+        throw readOnly();
+    }
+
+    @Override
+    public JSONElement putStructure(String key, EasyJSON easyJSON) {
+        throw readOnly();
+    }
+
+    @Override
+    public JSONElement putStructure(String key, JSONElement structure) {
+        throw readOnly();
+    }
+
+    @Override
+    public JSONElement putArray(String key, Object... items) {
+        throw readOnly();
+    }
+
+    @Override
+    public void putAll(EasyJSON easyJSONStructure) {
+        throw readOnly();
+    }
+
+    @Override
+    public void putAll(JSONElement jsonElement) {
+        throw readOnly();
+    }
+
+    @Override
+    public void claimElement(JSONElement jsonElement) {
+        throw readOnly();
+    }
+
+    @Override
+    public JSONElement merge(JSONElement newElement) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeElement(String... location) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean elementExists(String... location) {
+        return location.length > 0 && find(entry, location, 0) >= 0;
+    }
+
+    @Override
+    public JSONElement search(String... location) {
+        return deepSearch(this, location, 0);
+    }
+
+    @Override
+    public JSONElement deepSearch(JSONElement element, String[] location, int locPosition) {
+        if (locPosition >= location.length) {
+            return null;
+        }
+        if (!(element instanceof TapeElement match)) {
+            return element.deepSearch(element, location, locPosition);
+        }
+        for (int i = locPosition; i < location.length && match != null; i++) {
+            match = match.child(location[i]);
+        }
+        return match;
+    }
+
+    @Override
+    public Object valueOf(String... location) {
+        if (location.length == 0) {
+            return null;
+        }
+        int found = find(entry, location, 0);
+        return found >= 0 ? tape.value(found) : null;
+    }
+
+    /**
+     * Follows a path down the tape
+     *
+     * @return the entry found, or -1
+     */
+    private int find(int from, String[] location, int locPosition) {
+        int e = from;
+        for (int i = locPosition; i < location.length && e >= 0; i++) {
+            e = childEntry(e, location[i]);
+        }
+        return e;
+    }
+
+    private int childEntry(int container, String key) {
+        return switch (tape.kind(container)) {
+            case JSONTape.OBJECT -> key == null ? -1 : tape.member(container, key);
+            case JSONTape.ARRAY -> tape.element(container, JSONElementImpl.parseIndex(key));
+            default -> -1;
+        };
+    }
+
+    private TapeElement child(String key) {
+        int found = childEntry(entry, key);
+        return found < 0 ? null : childAt(found);
+    }
+
+    private TapeElement childAt(int valueEntry) {
+        return new TapeElement(null, this, tape, valueEntry, tape.kind(entry) == JSONTape.OBJECT ? valueEntry - 1 : -1);
+    }
+
+    private int childCount() {
+        return tape.isContainer(entry) ? tape.childCount(entry) : 0;
+    }
+
+    @Override
+    public Iterator<JSONElement> iterator() {
+        return new Iterator<>() {
+            private final int size = childCount();
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public JSONElement next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return childAt(tape.child(entry, next++));
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringWriter out = new StringWriter();
+        try {
+            writeTo(out);
+        } catch (IOException e) {
+            // a StringWriter never throws
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TapeElement other && other.tape == tape && other.entry == entry;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(tape), entry);
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("EasyJSON: This structure was opened read-only.");
+    }
+
+    /**
+     * The children of this node, created as they're asked for.
+     * Large containers find their children through the tape's index of them.
+     */
+    private final class Children extends AbstractList<JSONElement> {
+        @Override
+        public JSONElement get(int i) {
+            Objects.checkIndex(i, size());
+            return childAt(tape.child(entry, i));
+        }
+
+        @Override
+        public int size() {
+            return childCount();
+        }
+
+        @Override
+        public Iterator<JSONElement> iterator() {
+            return TapeElement.this.iterator();
+        }
+    }
+}
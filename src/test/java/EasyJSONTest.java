@@ -1,12 +1,55 @@
+import org.json.simple.JSONValue;
+import org.json.simple.LazyNumber;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.jupiter.api.DisplayName;
+import xyz.victorolaitan.easyjson.DatabaseHelper;
 import xyz.victorolaitan.easyjson.EasyJSON;
 import xyz.victorolaitan.easyjson.EasyJSONException;
 import xyz.victorolaitan.easyjson.JSONElement;
+import xyz.victorolaitan.easyjson.JSONElementType;
+import xyz.victorolaitan.easyjson.JSONPath;
+import xyz.victorolaitan.easyjson.OpenOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 public class EasyJSONTest {
 
+    public static class Pet {
+        public String name;
+        public long age;
+        public List<Object> tags;
+        public Owner owner;
+
+        public static class Owner {
+            public String name;
+        }
+    }
+
+    public static class Reading {
+        private long id;
+        public int count;
+        public double value;
+        public float ratio;
+        public boolean valid;
+        public char grade;
+        public String unit;
+    }
+
     @Test
     @DisplayName("create empty JSON")
     public void createEmptyJSON() {
@@ -174,4 +217,560 @@ public class EasyJSONTest {
         json.putPrimitive("ping", "pong");
         Assert.assertEquals("pong", json.exportToJSONObject().get("ping"));
     }
+
+    @Test
+    @DisplayName("export (keeps order)")
+    public void exportKeepsOrder() throws EasyJSONException {
+        EasyJSON json = EasyJSON.create();
+        for (int i = 20; i > 0; i--) {
+            json.putStructure("key" + i).putPrimitive("value", i);
+        }
+        Assert.assertEquals(json.toString(), json.exportToJSONObject().toJSONString());
+    }
+
+    @Test
+    @DisplayName("open")
+    public void open() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), "{\"ping\":[\"hi\",{\"pong\":\"ball\"}],\"count\":3}");
+        EasyJSON json = EasyJSON.open(file);
+        Assert.assertEquals("ball", json.valueOf("ping", "1", "pong"));
+        Assert.assertEquals(3L, json.valueOf("count"));
+        Assert.assertEquals(json.getRootNode(), json.search("ping").getParent());
+    }
+
+    @Test
+    @DisplayName("search (many keys)")
+    public void searchManyKeys() {
+        EasyJSON json = EasyJSON.create();
+        for (int i = 0; i < 100; i++) {
+            json.putPrimitive("key" + i, i);
+        }
+        Assert.assertEquals(42, json.valueOf("key42"));
+        json.removeElement("key42");
+        Assert.assertNull(json.search("key42"));
+        json.search("key43").setKey("renamed");
+        Assert.assertNull(json.search("key43"));
+        Assert.assertEquals(43, json.valueOf("renamed"));
+        json.putPrimitive("key99", "replaced");
+        Assert.assertEquals("replaced", json.valueOf("key99"));
+        Assert.assertEquals(99, json.getRootNode().getChildren().size());
+    }
+
+    @Test
+    @DisplayName("search (many keys, from several threads)")
+    public void searchManyKeysConcurrently() throws IOException, EasyJSONException, InterruptedException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        StringBuilder text = new StringBuilder("{");
+        for (int i = 0; i < 20000; i++) {
+            text.append(i == 0 ? "" : ",").append("\"key").append(i).append("\":").append(i);
+        }
+        Files.writeString(file.toPath(), text.append('}'));
+        for (OpenOptions options : new OpenOptions[]{OpenOptions.defaults(), OpenOptions.defaults().lazy(true)}) {
+            EasyJSON json = EasyJSON.open(file, options);
+            int[] misses = new int[8];
+            Thread[] threads = new Thread[misses.length];
+            for (int t = 0; t < threads.length; t++) {
+                int slot = t;
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 20000; i++) {
+                        if (json.valueOf("key" + i) == null) {
+                            misses[slot]++;
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            Assert.assertArrayEquals(new int[misses.length], misses);
+        }
+    }
+
+    @Test
+    @DisplayName("search (array index)")
+    public void searchArrayIndex() {
+        EasyJSON json = EasyJSON.create();
+        JSONElement arr = json.putArray("arr");
+        for (int i = 0; i < 10000; i++) {
+            arr.putPrimitive(i);
+        }
+        Assert.assertEquals(9000, json.valueOf("arr", "9000"));
+        Assert.assertNull(json.search("arr", "09000"));
+        Assert.assertNull(json.search("arr", "-1"));
+        Assert.assertNull(json.search("arr", "10000"));
+    }
+
+    @Test
+    @DisplayName("writeTo")
+    public void writeTo() throws IOException {
+        EasyJSON json = EasyJSON.create();
+        json.putArray("ping", "h\u00e9", 2).putStructure("").putPrimitive("pong", null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        json.writeTo(out);
+        Assert.assertEquals("{\"ping\":[\"h\u00e9\",2,{\"pong\":null}]}", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("save and open")
+    public void saveAndOpen() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        EasyJSON json = EasyJSON.create(file);
+        json.putStructure("pets").putArray("dogs", "pug", "rottweiler");
+        json.save();
+        Assert.assertEquals("rottweiler", EasyJSON.open(file).valueOf("pets", "dogs", "1"));
+    }
+
+    @Test
+    @DisplayName("DatabaseHelper round trip")
+    public void databaseHelperRoundTrip() throws EasyJSONException {
+        EasyJSON json = EasyJSON.create();
+        json.putPrimitive("name", "rex");
+        json.putPrimitive("age", 3L);
+        json.putArray("tags", "good", "dog");
+        json.putStructure("owner").putPrimitive("name", "sam");
+        Pet pet = DatabaseHelper.deserializeToClass(Pet.class, json);
+        Assert.assertEquals("sam", pet.owner.name);
+        Assert.assertEquals(List.of("good", "dog"), pet.tags);
+        Assert.assertEquals(json.toString(), DatabaseHelper.serializeInstance(pet).toString());
+    }
+
+    @Test
+    @DisplayName("DatabaseHelper field types")
+    public void databaseHelperFieldTypes() throws EasyJSONException {
+        EasyJSON json = EasyJSON.create();
+        json.putPrimitive("id", 7); // an int widens to the long field
+        json.putPrimitive("count", 3);
+        json.putPrimitive("value", 0.25);
+        json.putPrimitive("ratio", 1.5f);
+        json.putPrimitive("valid", true);
+        json.putPrimitive("grade", 'b');
+        json.putPrimitive("unit", "ms");
+        Reading reading = DatabaseHelper.deserializeToClass(Reading.class, json);
+        Assert.assertEquals(3, reading.count);
+        Assert.assertEquals(0.25, reading.value, 0);
+        Assert.assertTrue(reading.valid);
+
+        EasyJSON back = DatabaseHelper.serializeInstance(reading);
+        Assert.assertEquals(7L, back.valueOf("id"));
+        Assert.assertEquals(3, back.valueOf("count"));
+        Assert.assertEquals(1.5f, back.valueOf("ratio"));
+        Assert.assertEquals('b', back.valueOf("grade"));
+        Assert.assertEquals("ms", back.valueOf("unit"));
+
+        json.putPrimitive("value", 2L); // a long widens to the double field
+        json.putPrimitive("ratio", 'a'); // and a char to the float field
+        reading = DatabaseHelper.deserializeToClass(Reading.class, json);
+        Assert.assertEquals(2.0, reading.value, 0);
+        Assert.assertEquals(97f, reading.ratio, 0);
+
+        for (Object value : new Object[]{2.5, 3L, "3", true}) {
+            json.putPrimitive("count", value);
+            try {
+                DatabaseHelper.deserializeToClass(Reading.class, json);
+                Assert.fail(String.valueOf(value));
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+        json.putPrimitive("count", 3);
+        json.putPrimitive("unit", 5);
+        try {
+            DatabaseHelper.deserializeToClass(Reading.class, json);
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    @DisplayName("DatabaseHelper readValue")
+    public void databaseHelperReadValue() throws EasyJSONException {
+        Pet pet = DatabaseHelper.readValue(
+                new StringReader("{\"name\":\"rex\",\"age\":3,\"tags\":[\"good\",{}],\"owner\":{\"name\":\"sam\"}}"),
+                Pet.class);
+        Assert.assertEquals("rex", pet.name);
+        Assert.assertEquals(3, pet.age);
+        Assert.assertEquals(List.of("good"), pet.tags.subList(0, 1));
+        Assert.assertNull(pet.tags.get(1));
+        Assert.assertEquals("sam", pet.owner.name);
+
+        List<Pet> pets = new ArrayList<>();
+        DatabaseHelper.readValues(new StringReader("[{\"name\":\"a\"},{\"name\":\"b\"}]"), Pet.class, pets::add);
+        Assert.assertEquals(2, pets.size());
+        Assert.assertEquals("b", pets.get(1).name);
+    }
+
+    @Test
+    @DisplayName("open (array and scalar roots)")
+    public void openNonObjectRoots() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), "[1,{\"ping\":\"pong\"},[true]]");
+        EasyJSON json = EasyJSON.open(file);
+        Assert.assertEquals("pong", json.valueOf("1", "ping"));
+        json.putPrimitive("added");
+        Assert.assertEquals("[1,{\"ping\":\"pong\"},[true],\"added\"]", json.toString());
+        Assert.assertEquals(json.toString(), json.exportToJSONValue().toString());
+
+        Files.writeString(file.toPath(), "\"just a string\"");
+        json = EasyJSON.open(file);
+        Assert.assertEquals("just a string", json.getRootNode().getValue());
+        Assert.assertEquals("\"just a string\"", json.toString());
+        try {
+            json.putPrimitive("x", 1);
+            Assert.fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        Assert.assertEquals("\"just a string\"", json.toString());
+    }
+
+    @Test
+    @DisplayName("open (duplicate keys)")
+    public void openDuplicateKeys() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        File wide = Files.createTempFile("easyjson", ".json").toFile();
+        wide.deleteOnExit();
+        Files.writeString(file.toPath(), "{\"a\":1,\"b\":2,\"a\":{\"c\":3}}");
+        Files.writeString(wide.toPath(), "{\"k0\":0,\"k1\":1,\"k2\":2,\"k3\":3,\"k4\":4,\"k1\":\"last\",\"k5\":5,\"k6\":6,\"k7\":7}");
+        for (OpenOptions options : new OpenOptions[]{OpenOptions.defaults(), OpenOptions.defaults().lazy(true), OpenOptions.defaults().readOnly(true)}) {
+            EasyJSON json = EasyJSON.open(file, options);
+            Assert.assertEquals(3L, json.valueOf("a", "c"));
+            Assert.assertEquals(2, json.getRootNode().getChildren().size());
+            Assert.assertEquals("{\"a\":{\"c\":3},\"b\":2}", json.toString());
+            json = EasyJSON.open(wide, options);
+            Assert.assertEquals("last", json.valueOf("k1"));
+            Assert.assertEquals("last", json.getRootNode().getChildren().get(1).getValue());
+            Assert.assertEquals(8, json.getRootNode().getChildren().size());
+        }
+    }
+
+    @Test
+    @DisplayName("open (UTF-8)")
+    public void openUtf8() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        String text = "{\"greeting\":\"h\u00e9llo \u4e16\u754c \ud83d\ude00\",\"escaped\":\"\\u00e9\\n\"}";
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        EasyJSON json = EasyJSON.open(file);
+        Assert.assertEquals("h\u00e9llo \u4e16\u754c \ud83d\ude00", json.valueOf("greeting"));
+        Assert.assertEquals("\u00e9\n", json.valueOf("escaped"));
+    }
+
+    @Test
+    @DisplayName("open (memory-mapped)")
+    public void openMemoryMapped() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        String text = "{\"greeting\":\"h\u00e9llo \u4e16\u754c\",\"values\":[1,2.5,true,null]}";
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        EasyJSON json = EasyJSON.open(file, OpenOptions.defaults().memoryMapped(true));
+        Assert.assertEquals("h\u00e9llo \u4e16\u754c", json.valueOf("greeting"));
+        Assert.assertEquals(text, json.getRootNode().toString());
+    }
+
+    @Test
+    @DisplayName("open (lazy numbers)")
+    public void openLazyNumbers() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        String text = "{\"count\":42,\"ratio\":1.50,\"big\":1E+3}";
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        EasyJSON json = EasyJSON.open(file, OpenOptions.defaults().lazyNumbers(true));
+        Object count = json.valueOf("count");
+        Assert.assertTrue(count instanceof LazyNumber);
+        Assert.assertEquals(42L, ((LazyNumber) count).value());
+        Assert.assertEquals(1.5, ((Number) json.valueOf("ratio")).doubleValue(), 0);
+        Assert.assertEquals(text, json.getRootNode().toString());
+    }
+
+    @Test
+    @DisplayName("open (big numbers)")
+    public void openBigNumbers() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        String text = "{\"id\":123456789012345678901234567890,\"small\":7,\"price\":0.10000000000000000001}";
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        EasyJSON json = EasyJSON.open(file, OpenOptions.defaults().bigNumbers(true));
+        Assert.assertEquals(new BigInteger("123456789012345678901234567890"), json.valueOf("id"));
+        Assert.assertEquals(7L, json.valueOf("small"));
+        Assert.assertEquals(new BigDecimal("0.10000000000000000001"), json.valueOf("price"));
+        Assert.assertEquals(text, json.getRootNode().toString());
+    }
+
+    @Test
+    @DisplayName("open (deeply nested)")
+    public void openDeeplyNested() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        int depth = 50_000;
+        String text = "{\"a\":[".repeat(depth) + "1" + "]}".repeat(depth);
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        EasyJSON json = EasyJSON.open(file);
+        Assert.assertEquals(text, json.toString());
+        Assert.assertNotNull(json.exportToJSONObject());
+        String[] path = new String[depth * 2];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = i % 2 == 0 ? "a" : "0";
+        }
+        Assert.assertEquals(1L, json.valueOf(path));
+        try {
+            EasyJSON.open(file, OpenOptions.defaults().maxDepth(1000));
+            Assert.fail();
+        } catch (EasyJSONException e) {
+            Assert.assertEquals(ParseException.ERROR_MAX_DEPTH_EXCEEDED, ((ParseException) e.getCause()).getErrorType());
+        }
+    }
+
+    @Test
+    @DisplayName("open a file read-only")
+    public void openReadOnly() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        String text = "{\"name\":\"caf\u00e9 \\\"x\\\"\",\"tags\":[1,2.5,true,false,{\"k\":[]}],\"empty\":{}}";
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        EasyJSON json = EasyJSON.open(file, OpenOptions.defaults().readOnly(true));
+        Assert.assertEquals("caf\u00e9 \"x\"", json.valueOf("name"));
+        Assert.assertEquals(2.5, json.valueOf("tags", "1"));
+        Assert.assertEquals(JSONElementType.ARRAY, json.search("tags", "4", "k").getType());
+        Assert.assertNull(json.search("tags", "5"));
+        Assert.assertEquals(5, json.search("tags").getChildren().size());
+        int count = 0;
+        for (JSONElement ignored : json.getRootNode()) {
+            count++;
+        }
+        Assert.assertEquals(3, count);
+        Assert.assertEquals(text, json.toString());
+        Assert.assertEquals(EasyJSON.open(file).exportToJSONObject(), json.exportToJSONObject());
+        try {
+            json.putPrimitive("more", 1);
+            Assert.fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            EasyJSON.open(file, OpenOptions.defaults().readOnly(true).maxDepth(2));
+            Assert.fail();
+        } catch (EasyJSONException e) {
+            Assert.assertEquals(ParseException.ERROR_MAX_DEPTH_EXCEEDED, ((ParseException) e.getCause()).getErrorType());
+        }
+    }
+
+    @Test
+    @DisplayName("open a file lazily")
+    public void openLazy() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        String text = "{\"header\":{\"version\":3},\"body\":[{\"id\":1},{\"id\":2}],\"empty\":[]}";
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        EasyJSON json = EasyJSON.open(file, OpenOptions.defaults().lazy(true));
+        Assert.assertEquals(3L, json.valueOf("header", "version"));
+        Assert.assertEquals(2L, json.valueOf("body", "1", "id"));
+        json.search("body", "0").putPrimitive("name", "first");
+        json.search("empty").putPrimitive(true);
+        json.removeElement("header");
+        Assert.assertEquals("{\"body\":[{\"id\":1,\"name\":\"first\"},{\"id\":2}],\"empty\":[true]}", json.toString());
+    }
+
+    @Test
+    @DisplayName("nodes (owning structure)")
+    public void nodeOwnership() throws IOException, EasyJSONException {
+        EasyJSON json = EasyJSON.create();
+        JSONElement cpu = json.putStructure("metrics").putStructure("cpu");
+        JSONElement p99 = cpu.putPrimitive("p99", 12);
+        Assert.assertSame(json, p99.getEasyJSONStructure());
+        json.removeElement("metrics", "cpu");
+        Assert.assertNull(cpu.getEasyJSONStructure());
+        Assert.assertNull(p99.getEasyJSONStructure());
+        EasyJSON other = EasyJSON.create();
+        other.getRootNode().putStructure("moved", cpu);
+        Assert.assertSame(other, p99.getEasyJSONStructure());
+        Assert.assertSame(other.getRootNode(), cpu.getParent());
+        Assert.assertSame(cpu, p99.getParent());
+
+        other.removeElement("moved");
+        JSONElement holder = json.putStructure("holder");
+        holder.putElement("again", cpu);
+        Assert.assertSame(holder, cpu.getParent());
+        Assert.assertSame(json, p99.getEasyJSONStructure());
+        Assert.assertEquals(12, json.valueOf("holder", "again", "p99"));
+
+        JSONElement target = json.putStructure("target");
+        target.merge(cpu);
+        Assert.assertSame(target, p99.getParent());
+        Assert.assertSame(json, p99.getEasyJSONStructure());
+        Assert.assertEquals(12, json.valueOf("target", "p99"));
+
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), "{\"a\":{\"b\":[1]}}");
+        for (OpenOptions options : new OpenOptions[]{OpenOptions.defaults(), OpenOptions.defaults().lazy(true)}) {
+            EasyJSON opened = EasyJSON.open(file, options);
+            Assert.assertSame(opened, opened.search("a", "b", "0").getEasyJSONStructure());
+        }
+    }
+
+    @Test
+    @DisplayName("open only part of a file")
+    public void openProjected() throws IOException, EasyJSONException {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        String text = "{\"header\":{\"version\":3,\"notes\":\"}]\"},\"items\":[{\"id\":1,\"tags\":[[]]},{\"id\":2}],\"rest\":[{\"a\":{}}]}";
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        EasyJSON json = EasyJSON.open(file, OpenOptions.defaults().include("header", "version").include("items", "*", "id"));
+        Assert.assertEquals("{\"header\":{\"version\":3},\"items\":[{\"id\":1},{\"id\":2}]}", json.toString());
+        json = EasyJSON.open(file, OpenOptions.defaults().include("items", "1", "id"));
+        Assert.assertEquals("{\"items\":[null,{\"id\":2}]}", json.toString());
+        Assert.assertEquals(2L, json.valueOf("items", "1", "id"));
+        Assert.assertEquals(json.toString(), json.exportToJSONObject().toJSONString());
+        Assert.assertNull(((List<?>) json.exportToJSONObject().get("items")).get(0));
+        json = EasyJSON.open(file, OpenOptions.defaults().include("items", "0", "tags"));
+        Assert.assertEquals("{\"items\":[{\"tags\":[[]]}]}", json.toString());
+    }
+
+    @Test
+    @DisplayName("search with a compiled path")
+    public void compiledPath() {
+        EasyJSON json = EasyJSON.create();
+        json.putStructure("metrics").putStructure("cpu").putPrimitive("p99", 12);
+        json.putArray("hosts", "a", "b");
+        JSONPath p99 = JSONPath.compile("metrics", "cpu", "p99");
+        JSONPath host = JSONPath.compile("hosts", "1");
+        Assert.assertEquals(12, json.valueOf(p99));
+        Assert.assertSame(json.search(p99), json.search(p99));
+        Assert.assertEquals("b", json.valueOf(host));
+        json.search("metrics", "cpu", "p99").setValue(13);
+        Assert.assertEquals(13, json.valueOf(p99));
+        json.removeElement("metrics", "cpu");
+        Assert.assertNull(json.valueOf(p99));
+        json.search("metrics").putStructure("cpu").putPrimitive("p99", 14);
+        Assert.assertEquals(14, json.valueOf(p99));
+        json.search("hosts").getChildren().remove(0);
+        Assert.assertNull(json.valueOf(host));
+    }
+
+    @Test
+    @DisplayName("search with a compiled path (across documents)")
+    public void compiledPathAcrossDocuments() throws Exception {
+        File file = Files.createTempFile("easyjson", ".json").toFile();
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), "{\"a\":{\"b\":1}}");
+        EasyJSON first = EasyJSON.open(file, OpenOptions.defaults().lazy(true));
+        EasyJSON second = EasyJSON.create();
+        JSONPath ab = JSONPath.compile("a", "b");
+        JSONElement found = first.search(ab);
+        Assert.assertEquals(1L, found.getValue());
+        second.putPrimitive("x", 1);
+        Assert.assertSame(found, first.search(ab));
+        JSONPath ac = JSONPath.compile("a", "c");
+        Assert.assertNull(first.search(ac));
+        first.search("a").putPrimitive("c", 2);
+        Assert.assertEquals(2, first.valueOf(ac));
+        first.search("a").removeElement("c");
+        Assert.assertNull(first.search(ac));
+        Assert.assertSame(found, first.search(ab));
+
+        JSONElement a = first.search("a");
+        first.removeElement("a");
+        Assert.assertNull(first.valueOf(ab));
+        second.putStructure("a", a);
+        Assert.assertEquals(1L, second.valueOf(ab));
+        a.putPrimitive("b", 3);
+        Assert.assertEquals(3L, ((Number) second.valueOf(ab)).longValue());
+
+        second.removeElement("a");
+        JSONPath b = JSONPath.compile("b");
+        Assert.assertEquals(3, ((Number) a.valueOf(b)).intValue());
+        a.removeElement("b");
+        Assert.assertNull(a.valueOf(b));
+    }
+
+    @Test
+    @DisplayName("parser pool")
+    public void parserPool() throws ParseException {
+        JSONParser parser = JSONParser.acquire();
+        Assert.assertNotSame(parser, JSONParser.acquire());
+        parser.setNumberMode(JSONParser.NUMBERS_LAZY);
+        try {
+            parser.parse("{\"a\":[1,");
+            Assert.fail();
+        } catch (ParseException e) {
+            Assert.assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, e.getErrorType());
+        }
+        JSONParser.release(parser);
+        JSONParser reused = JSONParser.acquire();
+        Assert.assertSame(parser, reused);
+        Assert.assertEquals(JSONParser.NUMBERS_EAGER, reused.getNumberMode());
+        Assert.assertEquals("{\"a\":[1,2]}", JSONValue.toJSONString(reused.parse("{\"a\":[1,2]}")));
+        JSONParser.release(reused);
+    }
+
+    @Test
+    @DisplayName("escape (nothing to escape)")
+    public void escapeUnchanged() {
+        String plain = "h\u00e9llo \u4e16\u754c";
+        Assert.assertSame(plain, JSONValue.escape(plain));
+        Assert.assertEquals("a\\\"b\\\\c\\n\\u0001", JSONValue.escape("a\"b\\c\n\u0001"));
+    }
+
+    @Test
+    @DisplayName("parse (strings across buffer boundaries)")
+    public void parseSplitStrings() throws IOException, ParseException {
+        StringBuilder text = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        String[][] runs = {{"abc", "abc"}, {"\\n", "\n"}, {"\\u00e9", "\u00e9"}, {"\\\"", "\""},
+                {"\u00e9", "\u00e9"}, {"\u4e16", "\u4e16"}, {"\ud83d\ude00", "\ud83d\ude00"}, {"\\ud83d\\ude00", "\ud83d\ude00"}};
+        for (int i = 0; expected.length() < 40_000; i++) {
+            String[] run = runs[i % runs.length];
+            text.append(run[0]);
+            expected.append(run[1]);
+        }
+        String json = "[\"" + text + "\",\"" + text + "\"]";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        Reader chunkedReader = new StringReader(json) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 7));
+            }
+        };
+        InputStream chunkedStream = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 5));
+            }
+        };
+        for (Object parsed : new Object[]{new JSONParser().parse(chunkedReader), new JSONParser().parse(chunkedStream),
+                new JSONParser().parse(new ByteArrayInputStream(bytes))}) {
+            List<?> values = (List<?>) parsed;
+            Assert.assertEquals(expected.toString(), values.get(0));
+            Assert.assertEquals(expected.toString(), values.get(1));
+        }
+    }
+
+    @Test
+    @DisplayName("parse (number edge cases)")
+    public void parseNumbers() throws IOException, ParseException {
+        String[] doubles = {"9007199254740993.0", "1e22", "1e23", "2.2250738585072014E-308", "4.9e-324", "1.7976931348623157e308",
+                "0.1", "-0.0", "123456789012345678901234567890.5", "1e400", "1e-400", "0.30000000000000004", "3.141592653589793238462643"};
+        String[] longs = {"0", "-0", "9223372036854775807", "-9223372036854775808", "9007199254740993"};
+        JSONParser parser = new JSONParser();
+        JSONParser lazy = new JSONParser();
+        lazy.setNumberMode(JSONParser.NUMBERS_LAZY);
+        for (String number : doubles) {
+            Double expected = Double.valueOf(number);
+            Assert.assertEquals(number, expected, parser.parse(number));
+            Assert.assertEquals(number, expected, ((LazyNumber) lazy.parse(number)).value());
+            Assert.assertEquals(number, lazy.parse(number).toString());
+            Assert.assertEquals(number, expected, ((List<?>) parser.parse(new ByteArrayInputStream(("[" + number + "]").getBytes(StandardCharsets.UTF_8)))).get(0));
+        }
+        for (String number : longs) {
+            Long expected = Long.valueOf(number);
+            Assert.assertEquals(number, expected, parser.parse(number));
+            Assert.assertEquals(number, expected, ((LazyNumber) lazy.parse(number)).value());
+            Assert.assertEquals(number, lazy.parse(number).toString());
+            Assert.assertEquals(number, expected, ((List<?>) parser.parse(new ByteArrayInputStream(("[" + number + "]").getBytes(StandardCharsets.UTF_8)))).get(0));
+        }
+    }
 }